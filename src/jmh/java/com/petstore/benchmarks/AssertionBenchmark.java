@@ -0,0 +1,89 @@
+package com.petstore.benchmarks;
+
+import io.restassured.response.Response;
+import org.openjdk.jmh.annotations.*;
+import com.petstore.api.PetApi;
+import com.petstore.assertions.ResponseExpectations;
+import com.petstore.config.ConfigManager;
+import com.petstore.models.Pet;
+import com.petstore.stub.PetStoreStubServer;
+import com.petstore.utils.AssertionHelper;
+import com.petstore.utils.JsonCodec;
+import com.petstore.utils.TestDataBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of checking fields of a response that is already in memory. JsonPath lookups parse the body
+ * again on every call; the typed path maps it once with the cached JsonCodec reader; compiled
+ * ResponseExpectations check several fields in one allocation-free scan of the bytes.
+ * The response is fetched from the in-process stub during setup, so no I/O is measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+@State(Scope.Benchmark)
+public class AssertionBenchmark {
+    private Response response;
+    private byte[] body;
+    private Pet pet;
+    private ResponseExpectations expectations;
+
+    @Setup
+    public void setup() {
+        PetStoreStubServer server = new PetStoreStubServer().start();
+        try {
+            System.setProperty("base.url", server.getBaseUrl());
+            ConfigManager.getInstance().reload();
+            PetApi petApi = new PetApi();
+            pet = TestDataBuilder.buildPet();
+            petApi.addPet(pet);
+            response = petApi.getPetById(pet.getId());
+            body = response.asByteArray();
+            expectations = ResponseExpectations.builder()
+                    .status(200)
+                    .jsonFieldPresent("id")
+                    .jsonField("name", pet.getName())
+                    .jsonField("status", pet.getStatus())
+                    .bodyContains("\"photoUrls\"")
+                    .build();
+        } finally {
+            server.stop();
+            System.clearProperty("base.url");
+            ConfigManager.getInstance().reload();
+        }
+    }
+
+    @Benchmark
+    public void assertJsonPath() {
+        AssertionHelper.assertJsonPath(response, "name", pet.getName());
+    }
+
+    @Benchmark
+    public Object jsonPathLookup() {
+        return response.jsonPath().get("name");
+    }
+
+    @Benchmark
+    public void compiledExpectations() {
+        expectations.verify(response);
+    }
+
+    @Benchmark
+    public void assertResponseContainsKey() {
+        AssertionHelper.assertResponseContainsKey(response, "status");
+    }
+
+    @Benchmark
+    public void assertStatusCode() {
+        AssertionHelper.assertStatusCode(response, 200);
+    }
+
+    @Benchmark
+    public void assertTypedField() {
+        Pet actual = JsonCodec.fromBytes(body, Pet.class);
+        AssertionHelper.assertFieldEquals("name", actual.getName(), pet.getName());
+    }
+}
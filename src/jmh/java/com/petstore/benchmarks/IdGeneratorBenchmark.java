@@ -0,0 +1,43 @@
+package com.petstore.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import com.petstore.utils.IdGenerator;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the old id scheme (one shared java.util.Random) with IdGenerator. Run with "-t 1",
+ * "-t 4" and "-t 8": the shared Random contends on its seed and slows down as threads are added,
+ * while IdGenerator should keep a flat per-call time, i.e. throughput that scales with threads.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IdGeneratorBenchmark {
+    private final Random sharedRandom = new Random();
+    private final IdGenerator ids = IdGenerator.unseeded(0);
+
+    @Benchmark
+    public long sharedRandomId() {
+        return Math.abs(sharedRandom.nextLong()) % 1000000 + 1;
+    }
+
+    @Benchmark
+    public long idGeneratorId() {
+        return ids.nextId();
+    }
+
+    @Benchmark
+    public String idGeneratorUsername() {
+        return "user_" + Long.toString(ids.nextId(), 36);
+    }
+
+    @Benchmark
+    public int idGeneratorRandom() {
+        return ids.random().nextInt(100);
+    }
+}
@@ -0,0 +1,89 @@
+package com.petstore.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import com.petstore.models.Category;
+import com.petstore.models.Order;
+import com.petstore.models.Pet;
+import com.petstore.models.User;
+import com.petstore.utils.JsonCodec;
+import com.petstore.utils.TestDataBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization and deserialization cost per model class. "restAssuredDefault" reproduces what
+ * RestAssured's default Jackson factory does for every body (new ObjectMapper plus module scan),
+ * "sharedMapper" uses one mapper, and "cached" uses the pre-resolved JsonCodec reader/writer.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ModelSerializationBenchmark {
+
+    @Param({"Pet", "Order", "User", "Category"})
+    private String model;
+
+    private Object value;
+    private Class<?> type;
+    private byte[] json;
+    private ObjectMapper sharedMapper;
+
+    @Setup
+    public void setup() throws Exception {
+        switch (model) {
+            case "Pet" -> {
+                Pet pet = new Pet(TestDataBuilder.generatePetId(), TestDataBuilder.generatePetName(), "available");
+                pet.setCategory(new Category("Dogs"));
+                pet.setPhotoUrls(new String[]{"https://example.com/photo.jpg"});
+                value = pet;
+            }
+            case "Order" -> {
+                Order order = new Order(TestDataBuilder.generatePetId(), TestDataBuilder.generateQuantity());
+                order.setId(TestDataBuilder.generateOrderId());
+                order.setStatus("placed");
+                value = order;
+            }
+            case "User" -> value = new User(TestDataBuilder.generateUsername(), TestDataBuilder.generateEmail(),
+                    TestDataBuilder.generatePassword());
+            case "Category" -> value = new Category("Dogs");
+            default -> throw new IllegalArgumentException("Unknown model: " + model);
+        }
+        type = value.getClass();
+        sharedMapper = new ObjectMapper();
+        json = sharedMapper.writeValueAsBytes(value);
+    }
+
+    @Benchmark
+    public byte[] serializeRestAssuredDefault() throws Exception {
+        return new ObjectMapper().findAndRegisterModules().writeValueAsBytes(value);
+    }
+
+    @Benchmark
+    public byte[] serializeSharedMapper() throws Exception {
+        return sharedMapper.writeValueAsBytes(value);
+    }
+
+    @Benchmark
+    public byte[] serializeCached() throws Exception {
+        return JsonCodec.writer(type).writeValueAsBytes(value);
+    }
+
+    @Benchmark
+    public Object deserializeRestAssuredDefault() throws Exception {
+        return new ObjectMapper().findAndRegisterModules().readValue(json, type);
+    }
+
+    @Benchmark
+    public Object deserializeSharedMapper() throws Exception {
+        return sharedMapper.readValue(json, type);
+    }
+
+    @Benchmark
+    public Object deserializeCached() throws Exception {
+        return JsonCodec.reader(type).readValue(json);
+    }
+}
@@ -0,0 +1,67 @@
+package com.petstore.benchmarks;
+
+import io.restassured.RestAssured;
+import io.restassured.specification.RequestSpecification;
+import org.openjdk.jmh.annotations.*;
+import com.petstore.api.ApiClient;
+import com.petstore.config.ConfigManager;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares rebuilding a request specification per call (what resetRequestSpec() used to do)
+ * with deriving one from the shared base spec, with and without the now no-op reset. Run with
+ * "-prof gc" to see allocation per call and "-t 4" to check the derivation under contention.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RequestSpecBenchmark {
+    private SpecProbe probe;
+
+    @Setup
+    public void setup() {
+        probe = new SpecProbe();
+        probe.derive();
+    }
+
+    @Benchmark
+    public RequestSpecification rebuildPerRequest() {
+        ConfigManager config = ConfigManager.getInstance();
+        RestAssured.baseURI = config.getBaseUrl();
+        return RestAssured
+                .given()
+                .contentType("application/json")
+                .accept("application/json")
+                .baseUri(config.getBaseUrl())
+                .log().all();
+    }
+
+    @Benchmark
+    public RequestSpecification deriveFromBaseSpec() {
+        return probe.derive();
+    }
+
+    @Benchmark
+    public RequestSpecification resetThenDerive() {
+        return probe.resetThenDerive();
+    }
+
+    /**
+     * Exposes the protected per-request derivation to the benchmark
+     */
+    static class SpecProbe extends ApiClient {
+        RequestSpecification derive() {
+            return request();
+        }
+
+        @SuppressWarnings("deprecation")
+        RequestSpecification resetThenDerive() {
+            resetRequestSpec();
+            return request();
+        }
+    }
+}
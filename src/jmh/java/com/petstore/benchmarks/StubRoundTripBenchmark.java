@@ -0,0 +1,83 @@
+package com.petstore.benchmarks;
+
+import io.restassured.response.Response;
+import org.openjdk.jmh.annotations.*;
+import com.petstore.api.PetApi;
+import com.petstore.config.ConfigManager;
+import com.petstore.models.Pet;
+import com.petstore.stub.PetStoreStubServer;
+import com.petstore.utils.TestDataBuilder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full request cost against the in-process stub. "rawHttpClient" is a bare JDK HttpClient GET of
+ * the same resource, so it approximates loopback plus stub latency; the gap to the PetApi calls is
+ * the framework's own overhead (spec derivation, filters, metrics, body mapping). httpVersion
+ * switches the PetApi calls between RestAssured (HTTP_1_1) and the JDK transport (HTTP_2, which
+ * falls back to HTTP/1.1 against the stub), so it compares the two client stacks.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Dorg.slf4j.simpleLogger.defaultLogLevel=warn", "-Dsun.net.httpserver.nodelay=true"})
+@State(Scope.Benchmark)
+public class StubRoundTripBenchmark {
+    @Param({"HTTP_1_1", "HTTP_2"})
+    public String httpVersion;
+
+    private PetStoreStubServer server;
+    private PetApi petApi;
+    private HttpClient httpClient;
+    private HttpRequest rawGet;
+    private Pet pet;
+
+    @Setup
+    public void setup() {
+        server = new PetStoreStubServer().start();
+        System.setProperty("base.url", server.getBaseUrl());
+        System.setProperty("http.version", httpVersion);
+        ConfigManager.getInstance().reload();
+        petApi = new PetApi();
+        pet = TestDataBuilder.buildPet();
+        petApi.addPet(pet);
+        httpClient = HttpClient.newHttpClient();
+        rawGet = HttpRequest.newBuilder(URI.create(server.getBaseUrl() + "/pet/" + pet.getId()))
+                .header("Accept", "application/json")
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        httpClient.close();
+        server.stop();
+        System.clearProperty("base.url");
+        System.clearProperty("http.version");
+        ConfigManager.getInstance().reload();
+    }
+
+    @Benchmark
+    public byte[] rawHttpClient() throws Exception {
+        return httpClient.send(rawGet, HttpResponse.BodyHandlers.ofByteArray()).body();
+    }
+
+    @Benchmark
+    public Response getPetById() {
+        return petApi.getPetById(pet.getId());
+    }
+
+    @Benchmark
+    public Pet getPetByIdAs() {
+        return petApi.getPetByIdAs(pet.getId());
+    }
+
+    @Benchmark
+    public Response updatePet() {
+        return petApi.updatePet(pet);
+    }
+}
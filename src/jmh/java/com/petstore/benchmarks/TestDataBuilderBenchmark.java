@@ -0,0 +1,52 @@
+package com.petstore.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import com.petstore.models.Order;
+import com.petstore.models.Pet;
+import com.petstore.models.User;
+import com.petstore.utils.TestDataBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the TestDataBuilder generators per generated value. Run with "-t 4" to check that they
+ * stay free of contention (see IdGeneratorBenchmark for the id source on its own).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+@State(Scope.Benchmark)
+public class TestDataBuilderBenchmark {
+
+    @Benchmark
+    public Pet buildPet() {
+        return TestDataBuilder.buildPet();
+    }
+
+    @Benchmark
+    public Order buildOrder() {
+        return TestDataBuilder.buildOrder();
+    }
+
+    @Benchmark
+    public User buildUser() {
+        return TestDataBuilder.buildUser();
+    }
+
+    @Benchmark
+    public String generateUsername() {
+        return TestDataBuilder.generateUsername();
+    }
+
+    @Benchmark
+    public String generatePassword() {
+        return TestDataBuilder.generatePassword();
+    }
+
+    @Benchmark
+    public String getCurrentTimestamp() {
+        return TestDataBuilder.getCurrentTimestamp();
+    }
+}
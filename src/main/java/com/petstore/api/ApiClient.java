@@ -1,33 +1,138 @@
 package com.petstore.api;
 
+import com.fasterxml.jackson.databind.MappingIterator;
 import io.restassured.RestAssured;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.config.DecoderConfig;
+import io.restassured.config.DecoderConfig.ContentDecoder;
+import io.restassured.config.ObjectMapperConfig;
+import io.restassured.config.RestAssuredConfig;
 import io.restassured.response.Response;
 import io.restassured.specification.RequestSpecification;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import com.petstore.cache.ResponseCache;
 import com.petstore.config.ConfigManager;
+import com.petstore.logging.ExchangeLog;
+import com.petstore.metrics.RequestMetrics;
+import com.petstore.retry.RetryPolicy;
+import com.petstore.throttle.RequestGovernor;
+import com.petstore.throttle.RequestGovernor.Permit;
+import com.petstore.utils.JsonCodec;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
- * Base API client providing common REST operations and specifications
+ * Base API client providing common REST operations and specifications.
+ * Blocking calls go through RestAssured over pooled HTTP/1.1 connections by default; with
+ * http.version=HTTP_2 they share the multiplexed {@link AsyncHttpTransport} instead.
  */
 public class ApiClient {
     private static final Logger logger = LoggerFactory.getLogger(ApiClient.class);
-    protected RequestSpecification requestSpec;
+    static final String CONTENT_TYPE = "application/json";
+    static final String ACCEPT = "application/json";
+
+    /**
+     * Shared base specification. Built once and never mutated afterwards, so it can be
+     * read from any thread; every request derives its own copy through {@link #request()}.
+     * A configuration reload drops it so the next request picks up the new base URL and timeouts.
+     */
+    private static volatile RequestSpecification baseSpec;
+
+    static {
+        ConfigManager.getInstance().addReloadListener(snapshot -> baseSpec = null);
+    }
 
-    public ApiClient() {
-        setupRequestSpecification();
+    /**
+     * Returns the shared base specification, building it on first use
+     */
+    protected static RequestSpecification baseSpec() {
+        RequestSpecification spec = baseSpec;
+        if (spec == null) {
+            synchronized (ApiClient.class) {
+                spec = baseSpec;
+                if (spec == null) {
+                    spec = buildBaseSpec();
+                    baseSpec = spec;
+                }
+            }
+        }
+        return spec;
     }
 
-    private void setupRequestSpecification() {
+    private static RequestSpecification buildBaseSpec() {
         ConfigManager config = ConfigManager.getInstance();
-        RestAssured.baseURI = config.getBaseUrl();
-        
-        requestSpec = RestAssured
-                .given()
-                .contentType("application/json")
-                .accept("application/json")
-                .baseUri(config.getBaseUrl())
-                .log().all();
+        RequestSpecBuilder builder = new RequestSpecBuilder()
+                .setContentType(CONTENT_TYPE)
+                .setAccept(ACCEPT)
+                .setBaseUri(config.getBaseUrl())
+                .setConfig(restAssuredConfig()
+                        .httpClient(HttpConnectionPool.getInstance().httpClientConfig())
+                        .decoderConfig(decoderConfig(config.getHttpCompression())));
+        ExchangeLog exchangeLog = ExchangeLog.getInstance();
+        if (exchangeLog.isEnabled()) {
+            builder.addFilter(new ExchangeLoggingFilter(exchangeLog));
+        }
+        return builder.build();
+    }
+
+    /**
+     * RestAssured config shared by all requests: pooled HTTP client and the shared JSON mapper
+     */
+    static RestAssuredConfig restAssuredConfig() {
+        return SharedConfig.CONFIG;
+    }
+
+    /**
+     * Content decoders for the http.compression codings; RestAssured derives Accept-Encoding from them
+     */
+    private static DecoderConfig decoderConfig(List<String> codings) {
+        if (codings.isEmpty()) {
+            return DecoderConfig.decoderConfig().noContentDecoders();
+        }
+        ContentDecoder[] decoders = new ContentDecoder[codings.size()];
+        for (int i = 0; i < decoders.length; i++) {
+            decoders[i] = ContentDecoder.valueOf(codings.get(i).toUpperCase(Locale.ROOT));
+        }
+        return DecoderConfig.decoderConfig()
+                .contentDecoders(decoders[0], Arrays.copyOfRange(decoders, 1, decoders.length));
+    }
+
+    private static final class SharedConfig {
+        private static final RestAssuredConfig CONFIG = RestAssuredConfig.config()
+                .httpClient(HttpConnectionPool.getInstance().httpClientConfig())
+                .objectMapperConfig(ObjectMapperConfig.objectMapperConfig()
+                        .defaultObjectMapper(new JacksonObjectMapper()));
+    }
+
+    /**
+     * Derives a fresh request specification from the shared base specification
+     */
+    protected RequestSpecification request() {
+        return RestAssured.given().spec(baseSpec());
     }
 
     /**
@@ -35,40 +140,74 @@ public class ApiClient {
      */
     public Response get(String endpoint) {
         logger.info("Sending GET request to: {}", endpoint);
-        return requestSpec.when().get(endpoint);
+        return execute("GET", endpoint, () -> multiplexed()
+                ? await(AsyncHttpTransport.getInstance().send("GET", endpoint, null, null))
+                : request().when().get(endpoint));
+    }
+
+    /**
+     * Performs a GET request through the {@link ResponseCache} when cache.enabled is set: a fresh
+     * entry is returned without a request, a stale one is revalidated with If-None-Match
+     */
+    protected Response cachedGet(String endpoint) {
+        ResponseCache cache = ResponseCache.getInstance();
+        if (!cache.isEnabled()) {
+            return get(endpoint);
+        }
+        long epoch = cache.epoch();
+        ResponseCache.Entry entry = cache.lookup(endpoint);
+        if (entry == null) {
+            Response response = get(endpoint);
+            cache.put(endpoint, response, epoch);
+            return response;
+        }
+        if (entry.isFresh()) {
+            logger.info("Serving GET {} from cache", endpoint);
+            return entry.response();
+        }
+        logger.info("Revalidating cached GET {}", endpoint);
+        Response response = execute("GET", endpoint, () -> multiplexed()
+                ? await(AsyncHttpTransport.getInstance().send("GET", endpoint, null, null,
+                        Map.of("If-None-Match", entry.etag())))
+                : request().header("If-None-Match", entry.etag()).when().get(endpoint));
+        return cache.revalidated(endpoint, entry, response, epoch);
+    }
+
+    /**
+     * Drops cached lookups a write has changed
+     */
+    protected static void invalidate(String... endpoints) {
+        ResponseCache.getInstance().invalidate(endpoints);
     }
 
     /**
      * Performs a GET request with query parameters
      */
-    public Response get(String endpoint, java.util.Map<String, ?> queryParams) {
+    public Response get(String endpoint, Map<String, ?> queryParams) {
         logger.info("Sending GET request to: {} with params: {}", endpoint, queryParams);
-        return requestSpec
-                .queryParams(queryParams)
-                .when()
-                .get(endpoint);
+        return execute("GET", endpoint, () -> multiplexed()
+                ? await(AsyncHttpTransport.getInstance().send("GET", endpoint, queryParams, null))
+                : request().queryParams(queryParams).when().get(endpoint));
     }
 
     /**
      * Performs a POST request
      */
     public Response post(String endpoint, Object body) {
-        logger.info("Sending POST request to: {} with body: {}", endpoint, body);
-        return requestSpec
-                .body(body)
-                .when()
-                .post(endpoint);
+        logger.info("Sending POST request to: {}", endpoint);
+        return execute("POST", endpoint, () -> multiplexed()
+                ? await(AsyncHttpTransport.getInstance().send("POST", endpoint, null, body))
+                : request().body(body).when().post(endpoint));
     }
 
     /**
      * Performs a PUT request
      */
     public Response put(String endpoint, Object body) {
-        logger.info("Sending PUT request to: {} with body: {}", endpoint, body);
-        return requestSpec
-                .body(body)
-                .when()
-                .put(endpoint);
+        logger.info("Sending PUT request to: {}", endpoint);
+        return execute("PUT", endpoint, () -> multiplexed()
+                ? await(AsyncHttpTransport.getInstance().send("PUT", endpoint, null, body))
+                : request().body(body).when().put(endpoint));
     }
 
     /**
@@ -76,13 +215,324 @@ public class ApiClient {
      */
     public Response delete(String endpoint) {
         logger.info("Sending DELETE request to: {}", endpoint);
-        return requestSpec.when().delete(endpoint);
+        return execute("DELETE", endpoint, () -> multiplexed()
+                ? await(AsyncHttpTransport.getInstance().send("DELETE", endpoint, null, null))
+                : request().when().delete(endpoint));
+    }
+
+    /**
+     * Performs a non-blocking GET request
+     */
+    public CompletableFuture<Response> getAsync(String endpoint) {
+        logger.info("Sending async GET request to: {}", endpoint);
+        return executeAsync("GET", endpoint, () -> AsyncHttpTransport.getInstance().send("GET", endpoint, null, null));
+    }
+
+    /**
+     * Performs a non-blocking GET request with query parameters
+     */
+    public CompletableFuture<Response> getAsync(String endpoint, Map<String, ?> queryParams) {
+        logger.info("Sending async GET request to: {} with params: {}", endpoint, queryParams);
+        return executeAsync("GET", endpoint,
+                () -> AsyncHttpTransport.getInstance().send("GET", endpoint, queryParams, null));
+    }
+
+    /**
+     * Performs a non-blocking POST request
+     */
+    public CompletableFuture<Response> postAsync(String endpoint, Object body) {
+        logger.info("Sending async POST request to: {}", endpoint);
+        return executeAsync("POST", endpoint, () -> AsyncHttpTransport.getInstance().send("POST", endpoint, null, body));
+    }
+
+    /**
+     * Performs a non-blocking PUT request
+     */
+    public CompletableFuture<Response> putAsync(String endpoint, Object body) {
+        logger.info("Sending async PUT request to: {}", endpoint);
+        return executeAsync("PUT", endpoint, () -> AsyncHttpTransport.getInstance().send("PUT", endpoint, null, body));
+    }
+
+    /**
+     * Performs a non-blocking DELETE request
+     */
+    public CompletableFuture<Response> deleteAsync(String endpoint) {
+        logger.info("Sending async DELETE request to: {}", endpoint);
+        return executeAsync("DELETE", endpoint,
+                () -> AsyncHttpTransport.getInstance().send("DELETE", endpoint, null, null));
+    }
+
+    /**
+     * Sends a request once the endpoint group's {@link RequestGovernor} limits allow it, reads its
+     * body and records its latency in {@link RequestMetrics}. Idempotent requests that fail
+     * transiently are retried as {@link RetryPolicy} allows; only the first attempt is recorded
+     * under the endpoint's key, each retry under "RETRY " plus the key, measured from the end of
+     * the previous attempt so it includes the backoff it added.
+     */
+    protected Response execute(String method, String endpoint, Supplier<Response> call) {
+        RetryPolicy retryPolicy = RetryPolicy.getInstance();
+        boolean retryable = retryPolicy.appliesTo(method);
+        if (retryable) {
+            retryPolicy.onRequest();
+        }
+        RequestMetrics.Scope scope = RequestMetrics.getInstance().currentScope();
+        long previousEnd = 0;
+        for (int attempt = 1; ; attempt++) {
+            Permit permit = RequestGovernor.getInstance().acquire(endpoint);
+            long start = System.nanoTime();
+            Response response = null;
+            Exception failure = null;
+            int statusCode = -1;
+            long end;
+            try {
+                response = buffered(call.get());
+                statusCode = response.statusCode();
+            } catch (Exception e) {
+                // RestAssured rethrows checked I/O errors such as ConnectException without declaring them
+                failure = e;
+            } finally {
+                end = System.nanoTime();
+                permit.release(statusCode, end - start);
+                recordAttempt(scope, method, endpoint, attempt, attempt == 1 ? start : previousEnd, end, statusCode);
+            }
+            if (!retryable || !retryPolicy.shouldRetry(method, endpoint, attempt, statusCode, failure)) {
+                if (failure != null) {
+                    throw unchecked(failure);
+                }
+                return response;
+            }
+            previousEnd = end;
+            pause(retryPolicy.backoffNanos(attempt));
+        }
+    }
+
+    /**
+     * Non-blocking counterpart of {@link #execute}: same limits, retries and metrics, with
+     * backoff scheduled on a timer instead of holding a thread. Attempts are recorded in the
+     * metrics scopes and exchange log of the calling thread although they complete on others.
+     */
+    protected CompletableFuture<Response> executeAsync(String method, String endpoint,
+                                                       Supplier<CompletableFuture<Response>> call) {
+        RetryPolicy retryPolicy = RetryPolicy.getInstance();
+        boolean retryable = retryPolicy.appliesTo(method);
+        if (retryable) {
+            retryPolicy.onRequest();
+        }
+        return attemptAsync(RequestMetrics.getInstance().currentScope(), ExchangeLog.getInstance().owner(),
+                method, endpoint, call, retryable, 1, 0);
+    }
+
+    private CompletableFuture<Response> attemptAsync(RequestMetrics.Scope scope, long logOwner,
+                                                     String method, String endpoint,
+                                                     Supplier<CompletableFuture<Response>> call,
+                                                     boolean retryable, int attempt, long previousEnd) {
+        return RequestGovernor.getInstance().acquireAsync(endpoint, scope).thenCompose(permit -> {
+            long start = System.nanoTime();
+            CompletableFuture<Response> sent;
+            try {
+                sent = ExchangeLog.getInstance().onBehalfOf(logOwner, call);
+            } catch (Exception e) {
+                sent = CompletableFuture.failedFuture(e);
+            }
+            return sent.handle((response, error) -> {
+                long end = System.nanoTime();
+                int statusCode = error == null ? response.statusCode() : -1;
+                permit.release(statusCode, end - start);
+                recordAttempt(scope, method, endpoint, attempt, attempt == 1 ? start : previousEnd, end, statusCode);
+                RetryPolicy retryPolicy = RetryPolicy.getInstance();
+                if (!retryable || !retryPolicy.shouldRetry(method, endpoint, attempt, statusCode, error)) {
+                    return error == null ? CompletableFuture.completedFuture(response)
+                            : CompletableFuture.<Response>failedFuture(error);
+                }
+                Executor delayed = CompletableFuture.delayedExecutor(retryPolicy.backoffNanos(attempt),
+                        TimeUnit.NANOSECONDS, Runnable::run);
+                return CompletableFuture.supplyAsync(() -> null, delayed).thenCompose(ignored ->
+                        attemptAsync(scope, logOwner, method, endpoint, call, true, attempt + 1, end));
+            }).thenCompose(Function.identity());
+        });
+    }
+
+    /**
+     * True when http.version is HTTP_2: blocking calls then share the multiplexed JDK client of the
+     * async methods instead of RestAssured's HTTP/1.1 pool
+     */
+    protected static boolean multiplexed() {
+        return ConfigManager.getInstance().getHttpVersion() == HttpClient.Version.HTTP_2;
+    }
+
+    /**
+     * Waits for a transport reply, rethrowing its failure unwrapped so retries still see the IOException
+     */
+    protected static Response await(CompletableFuture<Response> reply) {
+        try {
+            return reply.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof IOException io) {
+                throw new UncheckedIOException(io);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Failure of a blocking call as thrown to callers: checked I/O errors are wrapped in
+     * UncheckedIOException, as {@link #await} does for the multiplexed transport
+     */
+    private static RuntimeException unchecked(Exception failure) {
+        if (failure instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        if (failure instanceof IOException io) {
+            return new UncheckedIOException(io.getMessage(), io);
+        }
+        return new IllegalStateException(failure.getMessage(), failure);
+    }
+
+    private static void recordAttempt(RequestMetrics.Scope scope, String method, String endpoint, int attempt,
+                                      long startNanos, long endNanos, int statusCode) {
+        RequestMetrics.getInstance().record(scope, attempt == 1 ? method : "RETRY " + method, endpoint,
+                startNanos, endNanos, statusCode >= 0 && statusCode < 400);
+    }
+
+    private static void pause(long nanos) {
+        long deadline = System.nanoTime() + nanos;
+        for (long remaining = nanos; remaining > 0; remaining = deadline - System.nanoTime()) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    /**
+     * Whether the client chose the id of a new resource; the server assigns one when it is null or 0
+     */
+    protected static boolean isAssignedId(Long id) {
+        return id != null && id != 0;
+    }
+
+    /**
+     * Parses a successful response body straight into the given type with the shared mapper,
+     * in one pass and without building a JsonPath tree
+     */
+    protected static <T> T readBody(Response response, Type type) {
+        int statusCode = response.statusCode();
+        if (statusCode < 200 || statusCode > 299) {
+            throw new IllegalStateException("Expected a successful response but got " + statusCode + ": "
+                    + response.asString());
+        }
+        return JsonCodec.fromBytes(response.asByteArray(), type);
+    }
+
+    /**
+     * Streams the elements of a JSON array response while they are parsed, without buffering the body,
+     * so arbitrarily large arrays use constant memory and can be abandoned early. The stream keeps the
+     * connection open until it is closed, so use it in try-with-resources. Streamed exchanges are
+     * recorded in {@link RequestMetrics} on close, as failed if parsing an element threw, but not captured
+     * by the exchange log.
+     */
+    protected <T> Stream<T> streamArray(String endpoint, Map<String, ?> queryParams, Class<T> elementType) {
+        RequestMetrics.Scope scope = RequestMetrics.getInstance().currentScope();
+        Permit permit = RequestGovernor.getInstance().acquire(endpoint);
+        long start = System.nanoTime();
+        HttpResponse<InputStream> reply;
+        try {
+            reply = AsyncHttpTransport.getInstance().openStream(endpoint, queryParams);
+        } catch (RuntimeException e) {
+            permit.release(-1, System.nanoTime() - start);
+            RequestMetrics.getInstance().record(scope, "GET", endpoint, start, System.nanoTime(), false);
+            throw e;
+        }
+        InputStream body;
+        try {
+            body = AsyncHttpTransport.decodedBody(reply);
+        } catch (RuntimeException e) {
+            permit.release(-1, System.nanoTime() - start);
+            RequestMetrics.getInstance().record(scope, "GET", endpoint, start, System.nanoTime(), false);
+            throw e;
+        }
+        int statusCode = reply.statusCode();
+        if (statusCode < 200 || statusCode > 299) {
+            String error;
+            try (body) {
+                error = new String(body.readAllBytes(), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                error = e.getMessage();
+            }
+            permit.release(statusCode, System.nanoTime() - start);
+            RequestMetrics.getInstance().record(scope, "GET", endpoint, start, System.nanoTime(), false);
+            throw new IllegalStateException("Expected a successful response but got " + statusCode + ": " + error);
+        }
+        MappingIterator<T> elements;
+        try {
+            elements = JsonCodec.reader(elementType).readValues(body);
+        } catch (IOException e) {
+            closeQuietly(body);
+            permit.release(statusCode, System.nanoTime() - start);
+            RequestMetrics.getInstance().record(scope, "GET", endpoint, start, System.nanoTime(), false);
+            throw new UncheckedIOException("Unable to parse GET " + endpoint, e);
+        }
+        AtomicBoolean failed = new AtomicBoolean();
+        Iterator<T> tracked = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                try {
+                    return elements.hasNext();
+                } catch (RuntimeException e) {
+                    failed.set(true);
+                    throw e;
+                }
+            }
+
+            @Override
+            public T next() {
+                try {
+                    return elements.next();
+                } catch (RuntimeException e) {
+                    failed.set(true);
+                    throw e;
+                }
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(tracked,
+                        Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(() -> {
+                    try {
+                        elements.close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    } finally {
+                        closeQuietly(body);
+                        permit.release(statusCode, System.nanoTime() - start);
+                        RequestMetrics.getInstance().record(scope, "GET", endpoint, start, System.nanoTime(), !failed.get());
+                    }
+                });
+    }
+
+    private static void closeQuietly(InputStream stream) {
+        try {
+            stream.close();
+        } catch (IOException e) {
+            logger.debug("Failed to close response stream", e);
+        }
+    }
+
+    /**
+     * Reads the response body eagerly so the pooled connection is released straight away
+     */
+    protected static Response buffered(Response response) {
+        response.getBody().asByteArray();
+        return response;
     }
 
     /**
-     * Resets the request specification for the next request
+     * Resets the request specification for the next request.
+     *
+     * @deprecated every request now derives a fresh specification from the shared base spec,
+     *             so there is no per-client state left to reset
      */
+    @Deprecated
     protected void resetRequestSpec() {
-        setupRequestSpecification();
     }
 }
@@ -0,0 +1,265 @@
+package com.petstore.api;
+
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+import com.petstore.config.ConfigManager;
+import com.petstore.logging.Exchange;
+import com.petstore.logging.ExchangeLog;
+import com.petstore.utils.JsonCodec;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Non-blocking transport behind the *Async API methods, built on the JDK HttpClient.
+ * Uses the same base URL and default headers as the RestAssured base spec and adapts
+ * each reply to a RestAssured {@link Response}, so AssertionHelper works unchanged.
+ * <p>
+ * With http.version=HTTP_2 the client negotiates h2 via ALPN over TLS, or upgrades to h2c on
+ * plain http, and multiplexes all requests to a host over one connection; servers that only
+ * speak HTTP/1.1 keep working over HTTP/1.1. In that mode ApiClient sends its blocking calls
+ * through here too. A configuration reload builds a new client for the next request.
+ * <p>
+ * The JDK client neither asks for nor decodes compressed bodies, so this transport sends the
+ * http.compression codings in Accept-Encoding itself and inflates gzip and deflate replies,
+ * buffered or streamed, the way RestAssured does on the blocking path.
+ */
+class AsyncHttpTransport {
+    private static volatile AsyncHttpTransport instance;
+
+    static {
+        ConfigManager.getInstance().addReloadListener(snapshot -> {
+            AsyncHttpTransport previous;
+            synchronized (AsyncHttpTransport.class) {
+                previous = instance;
+                instance = null;
+            }
+            if (previous != null) {
+                previous.httpClient.shutdown();
+            }
+        });
+    }
+
+    private final HttpClient httpClient;
+    private final String baseUrl;
+    private final Duration responseTimeout;
+    private final String acceptEncoding;
+    private final ExchangeLog exchangeLog = ExchangeLog.getInstance();
+
+    private AsyncHttpTransport(ConfigManager config) {
+        baseUrl = config.getBaseUrl();
+        responseTimeout = Duration.ofMillis(config.getResponseTimeout());
+        acceptEncoding = config.getHttpCompression().isEmpty() ? null : String.join(", ", config.getHttpCompression());
+        httpClient = HttpClient.newBuilder()
+                .version(config.getHttpVersion())
+                .connectTimeout(Duration.ofMillis(config.getRequestTimeout()))
+                .build();
+    }
+
+    static AsyncHttpTransport getInstance() {
+        AsyncHttpTransport transport = instance;
+        if (transport == null) {
+            synchronized (AsyncHttpTransport.class) {
+                transport = instance;
+                if (transport == null) {
+                    transport = new AsyncHttpTransport(ConfigManager.getInstance());
+                    instance = transport;
+                }
+            }
+        }
+        return transport;
+    }
+
+    /**
+     * Sends a request without blocking; body is serialized to JSON when not null
+     */
+    CompletableFuture<Response> send(String method, String endpoint, Map<String, ?> queryParams, Object body) {
+        return send(method, endpoint, queryParams, body, Map.of());
+    }
+
+    /**
+     * Sends a request without blocking, with extra request headers such as If-None-Match
+     */
+    CompletableFuture<Response> send(String method, String endpoint, Map<String, ?> queryParams, Object body,
+                                     Map<String, String> headers) {
+        byte[] json = body == null ? null : JsonCodec.toBytes(body);
+        HttpRequest.BodyPublisher publisher = json == null
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofByteArray(json);
+        HttpRequest.Builder builder = newRequest(endpoint, queryParams)
+                .header("Content-Type", ApiClient.CONTENT_TYPE)
+                .method(method, publisher);
+        headers.forEach(builder::header);
+        HttpRequest request = builder.build();
+        return dispatch(request, json);
+    }
+
+    /**
+     * Sends a multipart/form-data POST with a single file part without blocking
+     */
+    CompletableFuture<Response> sendMultipart(String endpoint, String partName, Path file) {
+        String boundary = "----petstore" + UUID.randomUUID();
+        byte[] content;
+        try {
+            content = Files.readAllBytes(file);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(new UncheckedIOException(e));
+        }
+        String head = "--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"" + partName + "\"; filename=\"" + file.getFileName() + "\"\r\n"
+                + "Content-Type: application/octet-stream\r\n\r\n";
+        String tail = "\r\n--" + boundary + "--\r\n";
+        HttpRequest request = newRequest(endpoint, null)
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(HttpRequest.BodyPublishers.concat(
+                        HttpRequest.BodyPublishers.ofString(head),
+                        HttpRequest.BodyPublishers.ofByteArray(content),
+                        HttpRequest.BodyPublishers.ofString(tail)))
+                .build();
+        return dispatch(request, "<multipart " + file.getFileName() + ">");
+    }
+
+    /**
+     * Sends a GET and returns as soon as the headers arrive, leaving the body as an unread stream
+     * for incremental parsing; read it through {@link #decodedBody} and close it
+     */
+    HttpResponse<InputStream> openStream(String endpoint, Map<String, ?> queryParams) {
+        HttpRequest request = newRequest(endpoint, queryParams).GET().build();
+        try {
+            return httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        } catch (IOException e) {
+            throw new UncheckedIOException("GET " + endpoint + " failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for GET " + endpoint, e);
+        }
+    }
+
+    /**
+     * Body of a streamed reply, inflated while it is read when the server compressed it
+     */
+    static InputStream decodedBody(HttpResponse<InputStream> reply) {
+        InputStream body = reply.body();
+        try {
+            return decoding(reply.headers().firstValue("Content-Encoding").orElse(null), body);
+        } catch (IOException e) {
+            try {
+                body.close();
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw new UncheckedIOException("Unable to decode " + reply.request().uri(), e);
+        }
+    }
+
+    private HttpRequest.Builder newRequest(String endpoint, Map<String, ?> queryParams) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + endpoint + toQueryString(queryParams)))
+                .timeout(responseTimeout)
+                .header("Accept", ApiClient.ACCEPT);
+        if (acceptEncoding != null) {
+            builder.header("Accept-Encoding", acceptEncoding);
+        }
+        return builder;
+    }
+
+    private CompletableFuture<Response> dispatch(HttpRequest request, Object requestBody) {
+        long start = System.nanoTime();
+        long owner = exchangeLog.owner();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(reply -> {
+                    long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    byte[] body = decode(reply);
+                    Response response = toResponse(reply, body, elapsedMillis);
+                    if (exchangeLog.isEnabled()) {
+                        exchangeLog.capture(owner, new Exchange(request.method(), request.uri().toString(),
+                                request.headers().map(), requestBody, response.getStatusLine(),
+                                response.getHeaders(), body));
+                    }
+                    return response;
+                });
+    }
+
+    /**
+     * Inflates a buffered reply; the Content-Encoding header is kept so callers can see what the server chose
+     */
+    private static byte[] decode(HttpResponse<byte[]> reply) {
+        String contentEncoding = reply.headers().firstValue("Content-Encoding").orElse(null);
+        byte[] body = reply.body();
+        if (contentEncoding == null || body.length == 0) {
+            return body;
+        }
+        try (InputStream decoded = decoding(contentEncoding, new ByteArrayInputStream(body))) {
+            return decoded.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to decode " + contentEncoding + " body of " + reply.request().uri(), e);
+        }
+    }
+
+    /**
+     * Wraps a body in the decoder for its Content-Encoding; identity and unknown codings pass through
+     */
+    private static InputStream decoding(String contentEncoding, InputStream body) throws IOException {
+        if (contentEncoding == null) {
+            return body;
+        }
+        return switch (contentEncoding.trim().toLowerCase(Locale.ROOT)) {
+            case "gzip", "x-gzip" -> new GZIPInputStream(body);
+            case "deflate" -> new InflaterInputStream(body);
+            default -> body;
+        };
+    }
+
+    /**
+     * Adapts a reply to a RestAssured response that maps bodies with the shared config and reports
+     * the time from sending the request to receiving the whole body, as RestAssured's own responses do
+     */
+    private static Response toResponse(HttpResponse<byte[]> reply, byte[] body, long elapsedMillis) {
+        List<Header> headers = new ArrayList<>();
+        reply.headers().map().forEach((name, values) -> values.forEach(value -> headers.add(new Header(name, value))));
+        ResponseBuilder builder = new ResponseBuilder()
+                .setStatusCode(reply.statusCode())
+                .setStatusLine((reply.version() == HttpClient.Version.HTTP_2 ? "HTTP/2 " : "HTTP/1.1 ") + reply.statusCode())
+                .setHeaders(new Headers(headers))
+                .setBody(body);
+        reply.headers().firstValue("Content-Type").ifPresent(builder::setContentType);
+        return BuiltResponses.complete(builder.build(), elapsedMillis);
+    }
+
+    private static String toQueryString(Map<String, ?> queryParams) {
+        if (queryParams == null || queryParams.isEmpty()) {
+            return "";
+        }
+        StringBuilder query = new StringBuilder("?");
+        queryParams.forEach((key, value) -> {
+            if (query.length() > 1) {
+                query.append('&');
+            }
+            query.append(URLEncoder.encode(key, StandardCharsets.UTF_8))
+                    .append('=')
+                    .append(URLEncoder.encode(String.valueOf(value), StandardCharsets.UTF_8));
+        });
+        return query.toString();
+    }
+}
@@ -0,0 +1,43 @@
+package com.petstore.api;
+
+import io.restassured.filter.time.TimingFilter;
+import io.restassured.internal.RestAssuredResponseOptionsImpl;
+import io.restassured.response.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Completes responses made by RestAssured's ResponseBuilder. They carry the default config (so
+ * as(...) would not use the shared mapper) and no response time, and RestAssured has no public API
+ * to set either. This is the only class that touches RestAssured internals.
+ * <p>
+ * Written against RestAssured 5.3.2 (rest-assured.version in pom.xml): built responses are
+ * RestAssuredResponseOptionsImpl, and getTime reads TimingFilter's entry in the filter context.
+ * HttpTransportTests checks both on multiplexed responses, so re-run it when upgrading. Should the
+ * internals change, responses are returned as built with a warning, and response time assertions
+ * fail on their -1 time rather than pass.
+ */
+final class BuiltResponses {
+    private static final Logger logger = LoggerFactory.getLogger(BuiltResponses.class);
+    private static final AtomicBoolean warned = new AtomicBoolean();
+
+    private BuiltResponses() {
+    }
+
+    /**
+     * Sets the shared config and the measured response time on a built response
+     */
+    static Response complete(Response response, long elapsedMillis) {
+        if (response instanceof RestAssuredResponseOptionsImpl<?> options) {
+            options.setConfig(ApiClient.restAssuredConfig());
+            options.setFilterContextProperties(Map.of(TimingFilter.RESPONSE_TIME_MILLISECONDS, elapsedMillis));
+        } else if (warned.compareAndSet(false, true)) {
+            logger.warn("Unexpected built response type {}: multiplexed responses keep RestAssured's default config "
+                    + "and report no response time", response.getClass().getName());
+        }
+        return response;
+    }
+}
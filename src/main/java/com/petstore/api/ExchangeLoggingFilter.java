@@ -0,0 +1,29 @@
+package com.petstore.api;
+
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import com.petstore.logging.Exchange;
+import com.petstore.logging.ExchangeLog;
+
+/**
+ * Hands every RestAssured exchange to the {@link ExchangeLog} instead of printing it inline
+ */
+class ExchangeLoggingFilter implements Filter {
+    private final ExchangeLog exchangeLog;
+
+    ExchangeLoggingFilter(ExchangeLog exchangeLog) {
+        this.exchangeLog = exchangeLog;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        Response response = ctx.next(requestSpec, responseSpec);
+        exchangeLog.capture(new Exchange(requestSpec.getMethod(), requestSpec.getURI(), requestSpec.getHeaders(),
+                requestSpec.getBody(), response.getStatusLine(), response.getHeaders(), response.asByteArray()));
+        return response;
+    }
+}
@@ -0,0 +1,165 @@
+package com.petstore.api;
+
+import io.restassured.config.HttpClientConfig;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponseInterceptor;
+import org.apache.http.client.params.ClientPNames;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.params.CoreConnectionPNames;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.util.EntityUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.petstore.config.ConfigManager;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pooled, keep-alive HTTP connection manager shared by every API client. A configuration reload
+ * resizes the pool and applies the new keep-alive and idle timeout in place, without dropping
+ * open connections; new request timeouts apply from the next base spec ApiClient builds.
+ */
+@SuppressWarnings("deprecation")
+public class HttpConnectionPool {
+    private static final Logger logger = LoggerFactory.getLogger(HttpConnectionPool.class);
+    private static volatile HttpConnectionPool instance;
+
+    private final PoolingClientConnectionManager connectionManager;
+    private final DefaultHttpClient httpClient;
+    private final ScheduledExecutorService evictor;
+    private volatile long keepAlive;
+    private long idleTimeout = -1;
+    private ScheduledFuture<?> eviction;
+
+    private HttpConnectionPool(ConfigManager config) {
+        connectionManager = new PoolingClientConnectionManager();
+        httpClient = new DefaultHttpClient(connectionManager);
+        httpClient.setKeepAliveStrategy(keepAliveStrategy());
+        httpClient.addResponseInterceptor(releaseEmptyBodies());
+        evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "http-pool-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        configure(config);
+        logger.info("HTTP connection pool created: maxTotal={}, maxPerRoute={}, keepAlive={}ms, idleTimeout={}ms",
+                connectionManager.getMaxTotal(), connectionManager.getDefaultMaxPerRoute(), keepAlive, idleTimeout);
+        config.addReloadListener(snapshot -> {
+            if (configure(config)) {
+                logger.info("HTTP connection pool reconfigured: maxTotal={}, maxPerRoute={}, keepAlive={}ms, idleTimeout={}ms",
+                        connectionManager.getMaxTotal(), connectionManager.getDefaultMaxPerRoute(), keepAlive, idleTimeout);
+            }
+        });
+    }
+
+    /**
+     * Applies the pool settings of the current configuration, returning whether any changed
+     */
+    private synchronized boolean configure(ConfigManager config) {
+        boolean changed = false;
+        if (connectionManager.getMaxTotal() != config.getPoolMaxTotal()) {
+            connectionManager.setMaxTotal(config.getPoolMaxTotal());
+            changed = true;
+        }
+        if (connectionManager.getDefaultMaxPerRoute() != config.getPoolMaxPerRoute()) {
+            connectionManager.setDefaultMaxPerRoute(config.getPoolMaxPerRoute());
+            changed = true;
+        }
+        if (keepAlive != config.getKeepAlive()) {
+            keepAlive = config.getKeepAlive();
+            changed = true;
+        }
+        long idle = config.getPoolIdleTimeout();
+        if (idleTimeout != idle) {
+            if (eviction != null) {
+                eviction.cancel(false);
+            }
+            long period = Math.max(1000, idle / 2);
+            eviction = evictor.scheduleAtFixedRate(() -> evictIdleConnections(idle), period, period, TimeUnit.MILLISECONDS);
+            idleTimeout = idle;
+            changed = true;
+        }
+        return changed;
+    }
+
+    public static HttpConnectionPool getInstance() {
+        HttpConnectionPool pool = instance;
+        if (pool == null) {
+            synchronized (HttpConnectionPool.class) {
+                pool = instance;
+                if (pool == null) {
+                    pool = new HttpConnectionPool(ConfigManager.getInstance());
+                    instance = pool;
+                }
+            }
+        }
+        return pool;
+    }
+
+    /**
+     * RestAssured client config that reuses the pooled client and applies the currently configured timeouts
+     */
+    public HttpClientConfig httpClientConfig() {
+        ConfigManager config = ConfigManager.getInstance();
+        int connectTimeout = config.getRequestTimeout();
+        int socketTimeout = config.getResponseTimeout();
+        return HttpClientConfig.httpClientConfig()
+                .httpClientFactory(() -> httpClient)
+                .reuseHttpClientInstance()
+                .setParam(CoreConnectionPNames.CONNECTION_TIMEOUT, connectTimeout)
+                .setParam(CoreConnectionPNames.SO_TIMEOUT, socketTimeout)
+                .setParam(ClientPNames.CONN_MANAGER_TIMEOUT, (long) connectTimeout);
+    }
+
+    /**
+     * Snapshot of leased, pending, available and max connections across all routes
+     */
+    public PoolStats getStats() {
+        return connectionManager.getTotalStats();
+    }
+
+    /**
+     * Closes expired connections and connections idle for longer than the given time
+     */
+    public void evictIdleConnections(long idleTimeoutMs) {
+        connectionManager.closeExpiredConnections();
+        connectionManager.closeIdleConnections(idleTimeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops idle eviction and closes every pooled connection
+     */
+    public void shutdown() {
+        logger.info("Shutting down HTTP connection pool: {}", getStats());
+        evictor.shutdownNow();
+        connectionManager.shutdown();
+    }
+
+    /**
+     * RestAssured never reads a zero-length body (e.g. the 404 of deleting a missing pet), so the
+     * connection would stay leased until the pool ran dry. Dropping the empty entity here lets
+     * HttpClient release the connection as soon as the headers are in.
+     */
+    private static HttpResponseInterceptor releaseEmptyBodies() {
+        return (response, context) -> {
+            HttpEntity entity = response.getEntity();
+            if (entity != null && entity.getContentLength() == 0) {
+                EntityUtils.consume(entity);
+                response.setEntity(null);
+            }
+        };
+    }
+
+    private ConnectionKeepAliveStrategy keepAliveStrategy() {
+        return (response, context) -> {
+            long serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return serverKeepAlive > 0 ? serverKeepAlive : keepAlive;
+        };
+    }
+}
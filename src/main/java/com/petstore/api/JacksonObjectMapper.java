@@ -0,0 +1,24 @@
+package com.petstore.api;
+
+import io.restassured.mapper.ObjectMapper;
+import io.restassured.mapper.ObjectMapperDeserializationContext;
+import io.restassured.mapper.ObjectMapperSerializationContext;
+import com.petstore.utils.JsonCodec;
+
+/**
+ * RestAssured object mapper backed by the shared {@link JsonCodec}. RestAssured's default Jackson
+ * mapper creates a new ObjectMapper and scans for modules on every body it maps; this one reuses
+ * the cached reader or writer for the type.
+ */
+class JacksonObjectMapper implements ObjectMapper {
+
+    @Override
+    public Object serialize(ObjectMapperSerializationContext context) {
+        return JsonCodec.toJson(context.getObjectToSerialize());
+    }
+
+    @Override
+    public Object deserialize(ObjectMapperDeserializationContext context) {
+        return JsonCodec.fromBytes(context.getDataToDeserialize().asByteArray(), context.getType());
+    }
+}
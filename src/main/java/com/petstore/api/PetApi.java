@@ -1,25 +1,34 @@
 package com.petstore.api;
 
+import com.fasterxml.jackson.databind.JavaType;
 import io.restassured.response.Response;
+import com.petstore.cleanup.CleanupRegistry;
 import com.petstore.models.Pet;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.petstore.utils.JsonCodec;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
 /**
  * Pet API endpoints handler
  */
 public class PetApi extends ApiClient {
     private static final Logger logger = LoggerFactory.getLogger(PetApi.class);
     private static final String PET_ENDPOINT = "/pet";
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private static final JavaType PET_LIST = JsonCodec.listOf(Pet.class);
 
     /**
      * Add a new pet to the store
      */
     public Response addPet(Pet pet) {
-        logger.info("Adding new pet: {}", pet);
-        return post(PET_ENDPOINT, pet);
+        logger.info("Adding new pet: {}", pet.getName());
+        Response response = post(PET_ENDPOINT, pet);
+        afterAdd(pet, response);
+        return response;
     }
 
     /**
@@ -27,7 +36,9 @@ public class PetApi extends ApiClient {
      */
     public Response updatePet(Pet pet) {
         logger.info("Updating pet with id: {}", pet.getId());
-        return put(PET_ENDPOINT, pet);
+        Response response = put(PET_ENDPOINT, pet);
+        invalidatePet(pet.getId());
+        return response;
     }
 
     /**
@@ -35,8 +46,7 @@ public class PetApi extends ApiClient {
      */
     public Response getPetById(Long petId) {
         logger.info("Getting pet by id: {}", petId);
-        resetRequestSpec();
-        return get(PET_ENDPOINT + "/" + petId);
+        return cachedGet(PET_ENDPOINT + "/" + petId);
     }
 
     /**
@@ -44,7 +54,6 @@ public class PetApi extends ApiClient {
      */
     public Response findPetsByStatus(String status) {
         logger.info("Finding pets by status: {}", status);
-        resetRequestSpec();
         return get(PET_ENDPOINT + "/findByStatus?status=" + status);
     }
 
@@ -53,7 +62,9 @@ public class PetApi extends ApiClient {
      */
     public Response deletePet(Long petId) {
         logger.info("Deleting pet with id: {}", petId);
-        return delete(PET_ENDPOINT + "/" + petId);
+        Response response = delete(PET_ENDPOINT + "/" + petId);
+        afterDelete(petId, response);
+        return response;
     }
 
     /**
@@ -61,10 +72,128 @@ public class PetApi extends ApiClient {
      */
     public Response uploadPetImage(Long petId, String imagePath) {
         logger.info("Uploading image for pet id: {} from path: {}", petId, imagePath);
-        resetRequestSpec();
-        return requestSpec
-                .multiPart("file", new java.io.File(imagePath))
-                .when()
-                .post(PET_ENDPOINT + "/" + petId + "/uploadImage");
+        String endpoint = PET_ENDPOINT + "/" + petId + "/uploadImage";
+        Response response = execute("POST", endpoint, () -> multiplexed()
+                ? await(AsyncHttpTransport.getInstance().sendMultipart(endpoint, "file", java.nio.file.Path.of(imagePath)))
+                : request().multiPart("file", new java.io.File(imagePath)).when().post(endpoint));
+        invalidatePet(petId);
+        return response;
+    }
+
+    /**
+     * Add a new pet and return the stored pet
+     */
+    public Pet addPetAs(Pet pet) {
+        return readBody(addPet(pet), Pet.class);
+    }
+
+    /**
+     * Update an existing pet and return the stored pet
+     */
+    public Pet updatePetAs(Pet pet) {
+        return readBody(updatePet(pet), Pet.class);
+    }
+
+    /**
+     * Get pet by ID as a Pet
+     */
+    public Pet getPetByIdAs(Long petId) {
+        return readBody(getPetById(petId), Pet.class);
+    }
+
+    /**
+     * Find pets by status as a list of Pets
+     */
+    public List<Pet> findPetsByStatusAs(String status) {
+        return readBody(findPetsByStatus(status), PET_LIST);
+    }
+
+    /**
+     * Stream pets by status while the response is parsed, in constant memory;
+     * close the stream when done, e.g. with try-with-resources
+     */
+    public Stream<Pet> streamPetsByStatus(String status) {
+        logger.info("Streaming pets by status: {}", status);
+        return streamArray(PET_ENDPOINT + "/findByStatus", Map.of("status", status), Pet.class);
+    }
+
+    /**
+     * Add a new pet to the store without blocking
+     */
+    public CompletableFuture<Response> addPetAsync(Pet pet) {
+        logger.info("Adding new pet asynchronously: {}", pet.getName());
+        return postAsync(PET_ENDPOINT, pet).whenComplete((response, error) -> afterAdd(pet, response));
+    }
+
+    /**
+     * Update an existing pet without blocking
+     */
+    public CompletableFuture<Response> updatePetAsync(Pet pet) {
+        logger.info("Updating pet asynchronously with id: {}", pet.getId());
+        return putAsync(PET_ENDPOINT, pet).whenComplete((response, error) -> invalidatePet(pet.getId()));
+    }
+
+    /**
+     * Get pet by ID without blocking
+     */
+    public CompletableFuture<Response> getPetByIdAsync(Long petId) {
+        logger.info("Getting pet asynchronously by id: {}", petId);
+        return getAsync(PET_ENDPOINT + "/" + petId);
+    }
+
+    /**
+     * Find pets by status without blocking
+     */
+    public CompletableFuture<Response> findPetsByStatusAsync(String status) {
+        logger.info("Finding pets asynchronously by status: {}", status);
+        return getAsync(PET_ENDPOINT + "/findByStatus", Map.of("status", status));
+    }
+
+    /**
+     * Delete a pet by ID without blocking
+     */
+    public CompletableFuture<Response> deletePetAsync(Long petId) {
+        logger.info("Deleting pet asynchronously with id: {}", petId);
+        return deleteAsync(PET_ENDPOINT + "/" + petId).whenComplete((response, error) -> afterDelete(petId, response));
+    }
+
+    /**
+     * Upload an image for a pet without blocking
+     */
+    public CompletableFuture<Response> uploadPetImageAsync(Long petId, String imagePath) {
+        logger.info("Uploading image asynchronously for pet id: {} from path: {}", petId, imagePath);
+        String endpoint = PET_ENDPOINT + "/" + petId + "/uploadImage";
+        return executeAsync("POST", endpoint, () -> AsyncHttpTransport.getInstance()
+                .sendMultipart(endpoint, "file", java.nio.file.Path.of(imagePath)))
+                .whenComplete((response, error) -> invalidatePet(petId));
+    }
+
+    /**
+     * Records an added pet for cleanup, with the id the server assigned if it had none
+     */
+    private static void afterAdd(Pet pet, Response response) {
+        invalidatePet(pet.getId());
+        CleanupRegistry registry = CleanupRegistry.getInstance();
+        if (response != null && response.statusCode() == 200 && registry.isEnabled()) {
+            registry.registerPet(isAssignedId(pet.getId()) ? pet.getId() : ApiClient.<Pet>readBody(response, Pet.class).getId());
+        }
+    }
+
+    private static void afterDelete(Long petId, Response response) {
+        invalidatePet(petId);
+        if (response != null && (response.statusCode() == 200 || response.statusCode() == 404)) {
+            CleanupRegistry.getInstance().forgetPet(petId);
+        }
+    }
+
+    /**
+     * A pet write changes the pet's lookup and the inventory counts
+     */
+    private static void invalidatePet(Long petId) {
+        if (petId == null) {
+            invalidate("/store/inventory");
+        } else {
+            invalidate(PET_ENDPOINT + "/" + petId, "/store/inventory");
+        }
     }
 }
@@ -1,23 +1,32 @@
 package com.petstore.api;
 
+import com.fasterxml.jackson.databind.JavaType;
 import io.restassured.response.Response;
+import com.petstore.cleanup.CleanupRegistry;
 import com.petstore.models.Order;
+import com.petstore.utils.JsonCodec;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Store API endpoints handler
  */
 public class StoreApi extends ApiClient {
     private static final Logger logger = LoggerFactory.getLogger(StoreApi.class);
     private static final String STORE_ENDPOINT = "/store";
+    private static final JavaType INVENTORY = JsonCodec.mapOf(String.class, Integer.class);
 
     /**
      * Place an order
      */
     public Response placeOrder(Order order) {
         logger.info("Placing order for pet id: {}", order.getPetId());
-        return post(STORE_ENDPOINT + "/order", order);
+        Response response = post(STORE_ENDPOINT + "/order", order);
+        afterPlace(order, response);
+        return response;
     }
 
     /**
@@ -25,8 +34,7 @@ public class StoreApi extends ApiClient {
      */
     public Response getOrderById(Long orderId) {
         logger.info("Getting order by id: {}", orderId);
-        resetRequestSpec();
-        return get(STORE_ENDPOINT + "/order/" + orderId);
+        return cachedGet(STORE_ENDPOINT + "/order/" + orderId);
     }
 
     /**
@@ -34,7 +42,9 @@ public class StoreApi extends ApiClient {
      */
     public Response deleteOrder(Long orderId) {
         logger.info("Deleting order with id: {}", orderId);
-        return delete(STORE_ENDPOINT + "/order/" + orderId);
+        Response response = delete(STORE_ENDPOINT + "/order/" + orderId);
+        afterDelete(orderId, response);
+        return response;
     }
 
     /**
@@ -42,7 +52,85 @@ public class StoreApi extends ApiClient {
      */
     public Response getInventory() {
         logger.info("Getting store inventory");
-        resetRequestSpec();
-        return get(STORE_ENDPOINT + "/inventory");
+        return cachedGet(STORE_ENDPOINT + "/inventory");
+    }
+
+    /**
+     * Place an order and return the stored order
+     */
+    public Order placeOrderAs(Order order) {
+        return readBody(placeOrder(order), Order.class);
+    }
+
+    /**
+     * Get order by ID as an Order
+     */
+    public Order getOrderByIdAs(Long orderId) {
+        return readBody(getOrderById(orderId), Order.class);
+    }
+
+    /**
+     * Get store inventory as counts per status
+     */
+    public Map<String, Integer> getInventoryAs() {
+        return readBody(getInventory(), INVENTORY);
+    }
+
+    /**
+     * Place an order without blocking
+     */
+    public CompletableFuture<Response> placeOrderAsync(Order order) {
+        logger.info("Placing order asynchronously for pet id: {}", order.getPetId());
+        return postAsync(STORE_ENDPOINT + "/order", order).whenComplete((response, error) -> afterPlace(order, response));
+    }
+
+    /**
+     * Get order by ID without blocking
+     */
+    public CompletableFuture<Response> getOrderByIdAsync(Long orderId) {
+        logger.info("Getting order asynchronously by id: {}", orderId);
+        return getAsync(STORE_ENDPOINT + "/order/" + orderId);
+    }
+
+    /**
+     * Delete an order without blocking
+     */
+    public CompletableFuture<Response> deleteOrderAsync(Long orderId) {
+        logger.info("Deleting order asynchronously with id: {}", orderId);
+        return deleteAsync(STORE_ENDPOINT + "/order/" + orderId)
+                .whenComplete((response, error) -> afterDelete(orderId, response));
+    }
+
+    /**
+     * Get store inventory without blocking
+     */
+    public CompletableFuture<Response> getInventoryAsync() {
+        logger.info("Getting store inventory asynchronously");
+        return getAsync(STORE_ENDPOINT + "/inventory");
+    }
+
+    /**
+     * Records a placed order for cleanup, with the id the server assigned if it had none
+     */
+    private static void afterPlace(Order order, Response response) {
+        invalidateOrder(order.getId());
+        CleanupRegistry registry = CleanupRegistry.getInstance();
+        if (response != null && response.statusCode() == 200 && registry.isEnabled()) {
+            Long orderId = isAssignedId(order.getId()) ? order.getId() : ApiClient.<Order>readBody(response, Order.class).getId();
+            registry.registerOrder(orderId);
+        }
+    }
+
+    private static void afterDelete(Long orderId, Response response) {
+        invalidateOrder(orderId);
+        if (response != null && (response.statusCode() == 200 || response.statusCode() == 404)) {
+            CleanupRegistry.getInstance().forgetOrder(orderId);
+        }
+    }
+
+    private static void invalidateOrder(Long orderId) {
+        if (orderId != null) {
+            invalidate(STORE_ENDPOINT + "/order/" + orderId);
+        }
     }
 }
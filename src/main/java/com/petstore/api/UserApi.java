@@ -1,10 +1,14 @@
 package com.petstore.api;
 
 import io.restassured.response.Response;
+import com.petstore.cleanup.CleanupRegistry;
 import com.petstore.models.User;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * User API endpoints handler
  */
@@ -17,7 +21,19 @@ public class UserApi extends ApiClient {
      */
     public Response createUser(User user) {
         logger.info("Creating new user: {}", user.getUsername());
-        return post(USER_ENDPOINT, user);
+        Response response = post(USER_ENDPOINT, user);
+        afterCreate(List.of(user), response);
+        return response;
+    }
+
+    /**
+     * Create several users in one request
+     */
+    public Response createUsersWithArray(List<User> users) {
+        logger.info("Creating {} users with array", users.size());
+        Response response = post(USER_ENDPOINT + "/createWithArray", users);
+        afterCreate(users, response);
+        return response;
     }
 
     /**
@@ -25,8 +41,7 @@ public class UserApi extends ApiClient {
      */
     public Response getUserByUsername(String username) {
         logger.info("Getting user by username: {}", username);
-        resetRequestSpec();
-        return get(USER_ENDPOINT + "/" + username);
+        return cachedGet(USER_ENDPOINT + "/" + username);
     }
 
     /**
@@ -34,7 +49,9 @@ public class UserApi extends ApiClient {
      */
     public Response updateUser(String username, User user) {
         logger.info("Updating user: {}", username);
-        return put(USER_ENDPOINT + "/" + username, user);
+        Response response = put(USER_ENDPOINT + "/" + username, user);
+        invalidate(USER_ENDPOINT + "/" + username, USER_ENDPOINT + "/" + user.getUsername());
+        return response;
     }
 
     /**
@@ -42,7 +59,9 @@ public class UserApi extends ApiClient {
      */
     public Response deleteUser(String username) {
         logger.info("Deleting user: {}", username);
-        return delete(USER_ENDPOINT + "/" + username);
+        Response response = delete(USER_ENDPOINT + "/" + username);
+        afterDelete(username, response);
+        return response;
     }
 
     /**
@@ -50,7 +69,6 @@ public class UserApi extends ApiClient {
      */
     public Response loginUser(String username, String password) {
         logger.info("Logging in user: {}", username);
-        resetRequestSpec();
         java.util.Map<String, String> params = new java.util.HashMap<>();
         params.put("username", username);
         params.put("password", password);
@@ -62,7 +80,99 @@ public class UserApi extends ApiClient {
      */
     public Response logoutUser() {
         logger.info("Logging out user");
-        resetRequestSpec();
         return get(USER_ENDPOINT + "/logout");
     }
+
+    /**
+     * Get user by username as a User
+     */
+    public User getUserByUsernameAs(String username) {
+        return readBody(getUserByUsername(username), User.class);
+    }
+
+    /**
+     * Create a new user without blocking
+     */
+    public CompletableFuture<Response> createUserAsync(User user) {
+        logger.info("Creating new user asynchronously: {}", user.getUsername());
+        return postAsync(USER_ENDPOINT, user).whenComplete((response, error) -> afterCreate(List.of(user), response));
+    }
+
+    /**
+     * Create several users in one request without blocking
+     */
+    public CompletableFuture<Response> createUsersWithArrayAsync(List<User> users) {
+        logger.info("Creating {} users with array asynchronously", users.size());
+        return postAsync(USER_ENDPOINT + "/createWithArray", users)
+                .whenComplete((response, error) -> afterCreate(users, response));
+    }
+
+    /**
+     * Get user by username without blocking
+     */
+    public CompletableFuture<Response> getUserByUsernameAsync(String username) {
+        logger.info("Getting user asynchronously by username: {}", username);
+        return getAsync(USER_ENDPOINT + "/" + username);
+    }
+
+    /**
+     * Update user without blocking
+     */
+    public CompletableFuture<Response> updateUserAsync(String username, User user) {
+        logger.info("Updating user asynchronously: {}", username);
+        return putAsync(USER_ENDPOINT + "/" + username, user).whenComplete((response, error) ->
+                invalidate(USER_ENDPOINT + "/" + username, USER_ENDPOINT + "/" + user.getUsername()));
+    }
+
+    /**
+     * Delete user without blocking
+     */
+    public CompletableFuture<Response> deleteUserAsync(String username) {
+        logger.info("Deleting user asynchronously: {}", username);
+        return deleteAsync(USER_ENDPOINT + "/" + username)
+                .whenComplete((response, error) -> afterDelete(username, response));
+    }
+
+    /**
+     * User login without blocking
+     */
+    public CompletableFuture<Response> loginUserAsync(String username, String password) {
+        logger.info("Logging in user asynchronously: {}", username);
+        java.util.Map<String, String> params = new java.util.HashMap<>();
+        params.put("username", username);
+        params.put("password", password);
+        return getAsync(USER_ENDPOINT + "/login", params);
+    }
+
+    /**
+     * User logout without blocking
+     */
+    public CompletableFuture<Response> logoutUserAsync() {
+        logger.info("Logging out user asynchronously");
+        return getAsync(USER_ENDPOINT + "/logout");
+    }
+
+    /**
+     * Drops cached lookups of the users and records them for cleanup
+     */
+    private static void afterCreate(List<User> users, Response response) {
+        String[] paths = new String[users.size()];
+        for (int i = 0; i < paths.length; i++) {
+            paths[i] = USER_ENDPOINT + "/" + users.get(i).getUsername();
+        }
+        invalidate(paths);
+        if (response != null && response.statusCode() == 200) {
+            CleanupRegistry registry = CleanupRegistry.getInstance();
+            for (User user : users) {
+                registry.registerUser(user.getUsername());
+            }
+        }
+    }
+
+    private static void afterDelete(String username, Response response) {
+        invalidate(USER_ENDPOINT + "/" + username);
+        if (response != null && (response.statusCode() == 200 || response.statusCode() == 404)) {
+            CleanupRegistry.getInstance().forgetUser(username);
+        }
+    }
 }
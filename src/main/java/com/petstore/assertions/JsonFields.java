@@ -0,0 +1,166 @@
+package com.petstore.assertions;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.petstore.utils.JsonCodec;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * JSON field expectations compiled for {@link JsonScanner}: each path split into key bytes and
+ * array indices, each expected value pre-encoded as the JSON bytes the server is expected to send.
+ * Paths are dotted keys with optional indices, e.g. "id", "category.name", "tags[0].name" or
+ * "[2].status"; anything else (GPath filters, wildcards, negative indices) is rejected.
+ * Where a body gives such a path a GPath meaning, e.g. a key applied to an array, the scanner
+ * reports the field as ambiguous instead of matching it.
+ */
+final class JsonFields {
+    static final int MAX_FIELDS = Long.SIZE;
+    private static final Comparator<JsonNode> NUMBERS_BY_VALUE = (expected, actual) ->
+            expected.isNumber() && actual.isNumber()
+                    ? expected.decimalValue().compareTo(actual.decimalValue())
+                    : expected.equals(actual) ? 0 : 1;
+
+    final String[] paths;
+    /** Key bytes per field and depth, null where the segment is an array index */
+    final byte[][][] names;
+    /** Array index per field and depth, -1 where the segment is a key */
+    final int[][] indices;
+    /** Expected value as JSON bytes, null when the field only has to be present and not null */
+    final byte[][] expected;
+    final JsonNode[] expectedNodes;
+    /** Fields whose path ends at the given depth */
+    final long[] terminalAt;
+    /** Fields whose segment at the given depth is a key */
+    final long[] keyAt;
+    final long all;
+
+    JsonFields(List<String> paths, List<Object> values, List<Boolean> presenceOnly) {
+        int count = paths.size();
+        if (count > MAX_FIELDS) {
+            throw new IllegalArgumentException("At most " + MAX_FIELDS + " JSON fields per expectation set but got "
+                    + count);
+        }
+        this.paths = paths.toArray(String[]::new);
+        names = new byte[count][][];
+        indices = new int[count][];
+        expected = new byte[count][];
+        expectedNodes = new JsonNode[count];
+        int maxDepth = 0;
+        for (int i = 0; i < count; i++) {
+            List<byte[]> segmentNames = new ArrayList<>();
+            List<Integer> segmentIndices = new ArrayList<>();
+            parse(this.paths[i], segmentNames, segmentIndices);
+            names[i] = segmentNames.toArray(byte[][]::new);
+            indices[i] = segmentIndices.stream().mapToInt(Integer::intValue).toArray();
+            maxDepth = Math.max(maxDepth, names[i].length);
+            if (!presenceOnly.get(i)) {
+                try {
+                    expected[i] = JsonCodec.mapper().writeValueAsBytes(values.get(i));
+                } catch (JsonProcessingException e) {
+                    throw new IllegalArgumentException("Unable to encode expected value of " + this.paths[i], e);
+                }
+                expectedNodes[i] = JsonCodec.mapper().valueToTree(values.get(i));
+            }
+        }
+        terminalAt = new long[maxDepth + 1];
+        keyAt = new long[maxDepth];
+        for (int i = 0; i < count; i++) {
+            terminalAt[names[i].length] |= 1L << i;
+            for (int depth = 0; depth < names[i].length; depth++) {
+                if (names[i][depth] != null) {
+                    keyAt[depth] |= 1L << i;
+                }
+            }
+        }
+        all = count == MAX_FIELDS ? -1L : (1L << count) - 1;
+    }
+
+    int size() {
+        return paths.length;
+    }
+
+    /**
+     * JSON equality with numbers compared by value at any depth, so 1, 1.0 and 1L are equal
+     */
+    static boolean sameJson(JsonNode expected, JsonNode actual) {
+        return expected.equals(NUMBERS_BY_VALUE, actual);
+    }
+
+    /**
+     * Whether the path uses only the syntax compiled here
+     */
+    static boolean isSupported(String path) {
+        return split(path, null, null);
+    }
+
+    static void parse(String path, List<byte[]> segmentNames, List<Integer> segmentIndices) {
+        if (path.isEmpty()) {
+            throw new IllegalArgumentException("Empty JSON path");
+        }
+        if (!split(path, segmentNames, segmentIndices)) {
+            throw new IllegalArgumentException("Unsupported JSON path: '" + path
+                    + "' (use keys and [n] indices, e.g. tags[0].name)");
+        }
+    }
+
+    /**
+     * Splits the path into the lists, which may be null to only validate it
+     */
+    private static boolean split(String path, List<byte[]> segmentNames, List<Integer> segmentIndices) {
+        int length = path.length();
+        if (length == 0) {
+            return false;
+        }
+        int i = 0;
+        while (i < length) {
+            byte[] name = null;
+            int index = -1;
+            if (path.charAt(i) == '[') {
+                int close = path.indexOf(']', i);
+                if (close < 0 || close == i + 1) {
+                    return false;
+                }
+                for (int digit = i + 1; digit < close; digit++) {
+                    if (path.charAt(digit) < '0' || path.charAt(digit) > '9') {
+                        return false;
+                    }
+                }
+                if (close - i > 10) {
+                    // beyond any int index
+                    return false;
+                }
+                index = Integer.parseInt(path, i + 1, close, 10);
+                i = close + 1;
+            } else {
+                int end = i;
+                while (end < length && path.charAt(end) != '.' && path.charAt(end) != '[') {
+                    if (!Character.isLetterOrDigit(path.charAt(end)) && path.charAt(end) != '_' && path.charAt(end) != '-') {
+                        return false;
+                    }
+                    end++;
+                }
+                if (end == i) {
+                    return false;
+                }
+                if (segmentNames != null) {
+                    name = path.substring(i, end).getBytes(StandardCharsets.UTF_8);
+                }
+                i = end;
+            }
+            if (segmentNames != null) {
+                segmentNames.add(name);
+                segmentIndices.add(index);
+            }
+            if (i < length && path.charAt(i) == '.') {
+                if (++i == length) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,363 @@
+package com.petstore.assertions;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.petstore.utils.JsonCodec;
+
+import java.io.IOException;
+
+/**
+ * Single-pass matcher of {@link JsonFields} over raw JSON bytes. It walks the document once,
+ * carrying a bitmask of the fields whose path still matches, compares keys and values as bytes
+ * and never builds a tree or a String, so a passing check allocates nothing. Only values that
+ * differ byte-wise (a mismatch, or an equal value written differently such as 1.0 for 1 or an
+ * escaped character) are parsed with Jackson to decide. A scanner is bound to one set of fields
+ * and used by one thread at a time; {@link ResponseExpectations} keeps one for reuse.
+ * <p>
+ * Fields whose path the body gives a GPath meaning are reported as {@link #ambiguous} rather than
+ * matched: a key applied to an array (GPath collects it across the elements) or a path going on
+ * past a string or number.
+ */
+final class JsonScanner {
+    private static final byte[] NULL = {'n', 'u', 'l', 'l'};
+    private static final byte[] TRUE = {'t', 'r', 'u', 'e'};
+    private static final byte[] FALSE = {'f', 'a', 'l', 's', 'e'};
+
+    private final JsonFields fields;
+    private final int[] starts;
+    private final int[] ends;
+    private byte[] json;
+    private int pos;
+    private long found;
+    private long mismatched;
+    private long ambiguous;
+
+    JsonScanner(JsonFields fields) {
+        this.fields = fields;
+        starts = new int[fields.size()];
+        ends = new int[fields.size()];
+    }
+
+    /**
+     * Scans a body; afterwards {@link #found}, {@link #mismatched} and {@link #ambiguous} tell the
+     * outcome per field
+     *
+     * @return false when the body is not well-formed JSON
+     */
+    boolean scan(byte[] json) {
+        this.json = json;
+        pos = 0;
+        found = 0;
+        mismatched = 0;
+        ambiguous = 0;
+        try {
+            value(0, fields.all);
+            skipWhitespace();
+            if (pos != json.length) {
+                throw MalformedJson.INSTANCE;
+            }
+            found &= ~ambiguous;
+            mismatched &= ~ambiguous;
+            return true;
+        } catch (MalformedJson e) {
+            return false;
+        } finally {
+            this.json = null;
+        }
+    }
+
+    /**
+     * Fields present (with a non-null value for presence-only fields)
+     */
+    long found() {
+        return found;
+    }
+
+    /**
+     * Fields present with a value other than the expected one
+     */
+    long mismatched() {
+        return mismatched;
+    }
+
+    /**
+     * Fields whose path this body gives a GPath meaning the scanner does not model
+     */
+    long ambiguous() {
+        return ambiguous;
+    }
+
+    /**
+     * Bytes of the value last seen for a mismatched field; only meaningful until the next scan of the same body
+     */
+    int start(int field) {
+        return starts[field];
+    }
+
+    int end(int field) {
+        return ends[field];
+    }
+
+    private void value(int depth, long candidates) {
+        skipWhitespace();
+        long terminal = depth < fields.terminalAt.length ? candidates & fields.terminalAt[depth] : 0;
+        long deeper = candidates & ~terminal;
+        int start = pos;
+        switch (peek()) {
+            case '{' -> object(depth, deeper);
+            case '[' -> array(depth, deeper);
+            case '"' -> {
+                string();
+                ambiguous |= deeper;
+            }
+            default -> {
+                literal();
+                if (json[start] != 'n') {
+                    ambiguous |= deeper;
+                }
+            }
+        }
+        if (terminal != 0) {
+            evaluate(terminal, start, pos);
+        }
+    }
+
+    private void object(int depth, long candidates) {
+        pos++;
+        skipWhitespace();
+        if (peek() == '}') {
+            pos++;
+            return;
+        }
+        while (true) {
+            skipWhitespace();
+            if (peek() != '"') {
+                throw MalformedJson.INSTANCE;
+            }
+            int keyStart = pos + 1;
+            string();
+            int keyEnd = pos - 1;
+            skipWhitespace();
+            if (next() != ':') {
+                throw MalformedJson.INSTANCE;
+            }
+            value(depth + 1, candidates == 0 ? 0 : matchKey(depth, candidates, keyStart, keyEnd));
+            skipWhitespace();
+            byte next = next();
+            if (next == '}') {
+                return;
+            }
+            if (next != ',') {
+                throw MalformedJson.INSTANCE;
+            }
+        }
+    }
+
+    private void array(int depth, long candidates) {
+        if (candidates != 0) {
+            ambiguous |= candidates & fields.keyAt[depth];
+        }
+        pos++;
+        skipWhitespace();
+        if (peek() == ']') {
+            pos++;
+            return;
+        }
+        for (int index = 0; ; index++) {
+            value(depth + 1, candidates == 0 ? 0 : matchIndex(depth, candidates, index));
+            skipWhitespace();
+            byte next = next();
+            if (next == ']') {
+                return;
+            }
+            if (next != ',') {
+                throw MalformedJson.INSTANCE;
+            }
+        }
+    }
+
+    private long matchKey(int depth, long candidates, int keyStart, int keyEnd) {
+        long matched = 0;
+        for (long bits = candidates; bits != 0; bits &= bits - 1) {
+            int field = Long.numberOfTrailingZeros(bits);
+            byte[] name = fields.names[field][depth];
+            if (name != null && rangeEquals(name, keyStart, keyEnd)) {
+                matched |= 1L << field;
+            }
+        }
+        return matched;
+    }
+
+    private long matchIndex(int depth, long candidates, int index) {
+        long matched = 0;
+        for (long bits = candidates; bits != 0; bits &= bits - 1) {
+            int field = Long.numberOfTrailingZeros(bits);
+            if (fields.indices[field][depth] == index) {
+                matched |= 1L << field;
+            }
+        }
+        return matched;
+    }
+
+    private void evaluate(long terminal, int start, int end) {
+        for (long bits = terminal; bits != 0; bits &= bits - 1) {
+            int field = Long.numberOfTrailingZeros(bits);
+            byte[] expected = fields.expected[field];
+            if (expected == null) {
+                if (!rangeEquals(NULL, start, end)) {
+                    found |= 1L << field;
+                }
+                continue;
+            }
+            found |= 1L << field;
+            if (!rangeEquals(expected, start, end) && !semanticallyEqual(fields.expectedNodes[field], start, end)) {
+                mismatched |= 1L << field;
+                starts[field] = start;
+                ends[field] = end;
+            }
+        }
+    }
+
+    /**
+     * Slow path for values that differ byte-wise: parses the actual value and compares it as JSON,
+     * numbers by numeric value
+     */
+    private boolean semanticallyEqual(JsonNode expected, int start, int end) {
+        JsonNode actual;
+        try {
+            actual = JsonCodec.mapper().readTree(json, start, end - start);
+        } catch (IOException e) {
+            return false;
+        }
+        return JsonFields.sameJson(expected, actual);
+    }
+
+    private boolean rangeEquals(byte[] expected, int start, int end) {
+        if (end - start != expected.length) {
+            return false;
+        }
+        for (int i = 0; i < expected.length; i++) {
+            if (json[start + i] != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void string() {
+        pos++;
+        while (true) {
+            byte b = next();
+            if (b == '"') {
+                return;
+            }
+            if (b == '\\') {
+                escape();
+            } else if (b >= 0 && b < 0x20) {
+                throw MalformedJson.INSTANCE;
+            }
+        }
+    }
+
+    private void escape() {
+        switch (next()) {
+            case '"', '\\', '/', 'b', 'f', 'n', 'r', 't' -> { }
+            case 'u' -> {
+                for (int i = 0; i < 4; i++) {
+                    if (Character.digit(next(), 16) < 0) {
+                        throw MalformedJson.INSTANCE;
+                    }
+                }
+            }
+            default -> throw MalformedJson.INSTANCE;
+        }
+    }
+
+    /**
+     * true, false, null or a number in the JSON grammar: -?(0|[1-9][0-9]*)(.[0-9]+)?([eE][+-]?[0-9]+)?
+     */
+    private void literal() {
+        switch (peek()) {
+            case 't' -> keyword(TRUE);
+            case 'f' -> keyword(FALSE);
+            case 'n' -> keyword(NULL);
+            default -> number();
+        }
+    }
+
+    private void keyword(byte[] keyword) {
+        if (pos + keyword.length > json.length || !rangeEquals(keyword, pos, pos + keyword.length)) {
+            throw MalformedJson.INSTANCE;
+        }
+        pos += keyword.length;
+    }
+
+    private void number() {
+        if (peek() == '-') {
+            pos++;
+        }
+        if (peek() == '0') {
+            pos++;
+        } else {
+            digits();
+        }
+        if (pos < json.length && json[pos] == '.') {
+            pos++;
+            digits();
+        }
+        if (pos < json.length && (json[pos] == 'e' || json[pos] == 'E')) {
+            pos++;
+            if (peek() == '+' || peek() == '-') {
+                pos++;
+            }
+            digits();
+        }
+    }
+
+    private void digits() {
+        if (!isDigit(peek())) {
+            throw MalformedJson.INSTANCE;
+        }
+        while (pos < json.length && isDigit(json[pos])) {
+            pos++;
+        }
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    private byte peek() {
+        if (pos >= json.length) {
+            throw MalformedJson.INSTANCE;
+        }
+        return json[pos];
+    }
+
+    private byte next() {
+        byte b = peek();
+        pos++;
+        return b;
+    }
+
+    private void skipWhitespace() {
+        while (pos < json.length) {
+            byte b = json[pos];
+            if (b != ' ' && b != '\n' && b != '\r' && b != '\t') {
+                return;
+            }
+            pos++;
+        }
+    }
+
+    /**
+     * Preallocated, stackless signal for a malformed body
+     */
+    private static final class MalformedJson extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+        static final MalformedJson INSTANCE = new MalformedJson();
+
+        private MalformedJson() {
+            super("Malformed JSON", null, false, false);
+        }
+    }
+}
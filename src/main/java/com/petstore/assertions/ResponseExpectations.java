@@ -0,0 +1,379 @@
+package com.petstore.assertions;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.restassured.http.Header;
+import io.restassured.response.Response;
+import com.petstore.utils.JsonCodec;
+import com.petstore.utils.ResponseBodies;
+import io.restassured.path.json.JsonPath;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A set of response expectations declared once and compiled, then checked against any number of
+ * responses: status, headers, JSON fields, body fragments and response time.
+ * <p>
+ * {@link #verify} evaluates every expectation in one pass over the response. JSON fields are
+ * matched by a single walk over the body bytes ({@link JsonScanner}) instead of one JsonPath
+ * lookup each, and body fragments are searched in the same bytes, so the body is never copied
+ * into a String. A passing check allocates nothing: no logging arguments, no messages (a response
+ * time expectation is the exception, as RestAssured's getTime allocates internally). Only when
+ * something fails are the checks run again to build one AssertionError listing every failure.
+ * A JSON field whose path the body gives a GPath meaning, such as "tags.name" over an array of
+ * tags, is evaluated through JsonPath instead, so the outcome is the one GPath gives.
+ * Instances are immutable and can be shared, e.g. as static fields of a test class.
+ * <pre>{@code
+ * static final ResponseExpectations AVAILABLE_PET = ResponseExpectations.builder()
+ *         .status(200)
+ *         .header("Content-Type", "application/json")
+ *         .jsonFieldPresent("id")
+ *         .jsonField("status", "available")
+ *         .maxResponseTime(3000)
+ *         .build();
+ *
+ * AVAILABLE_PET.verify(petApi.getPetById(petId));
+ * }</pre>
+ */
+public final class ResponseExpectations {
+    private static final Logger logger = LoggerFactory.getLogger(ResponseExpectations.class);
+
+    private final int status;
+    private final boolean successStatus;
+    private final String[] headerNames;
+    private final String[] headerValues;
+    private final JsonFields jsonFields;
+    private final String[] fragmentTexts;
+    private final byte[][] fragments;
+    private final long maxResponseTime;
+    private final int count;
+    private final String description;
+    /** Scanner kept for the next check; concurrent checks take it in turn or scan with a new one */
+    private final AtomicReference<JsonScanner> idleScanner = new AtomicReference<>();
+
+    private ResponseExpectations(Builder builder) {
+        status = builder.status;
+        successStatus = builder.successStatus;
+        headerNames = builder.headerNames.toArray(String[]::new);
+        headerValues = builder.headerValues.toArray(String[]::new);
+        jsonFields = new JsonFields(builder.jsonPaths, builder.jsonValues, builder.jsonPresenceOnly);
+        fragmentTexts = builder.fragmentTexts.toArray(String[]::new);
+        fragments = builder.fragments.toArray(byte[][]::new);
+        maxResponseTime = builder.maxResponseTime;
+        count = (status >= 0 || successStatus ? 1 : 0) + headerNames.length + jsonFields.size() + fragments.length
+                + (maxResponseTime >= 0 ? 1 : 0);
+        if (count == 0) {
+            throw new IllegalArgumentException("No expectations declared");
+        }
+        description = builder.description.toString();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Whether {@link Builder#jsonField} accepts the path; GPath expressions beyond keys and [n]
+     * indices need JsonPath
+     */
+    public static boolean supportsPath(String path) {
+        return JsonFields.isSupported(path);
+    }
+
+    /**
+     * Checks every expectation and throws one AssertionError listing all that failed
+     */
+    public void verify(Response response) {
+        if (check(response, null)) {
+            logger.debug("Verified {}", this);
+            return;
+        }
+        List<String> failures = new ArrayList<>();
+        check(response, failures);
+        if (failures.size() == 1) {
+            throw new AssertionError(failures.get(0));
+        }
+        StringBuilder message = new StringBuilder()
+                .append(failures.size()).append(" of ").append(count).append(" expectations failed:");
+        for (String failure : failures) {
+            message.append("\n - ").append(failure);
+        }
+        throw new AssertionError(message.toString());
+    }
+
+    /**
+     * Whether the response meets every expectation, without building any failure message
+     */
+    public boolean matches(Response response) {
+        return check(response, null);
+    }
+
+    /**
+     * Number of declared expectations
+     */
+    public int size() {
+        return count;
+    }
+
+    @Override
+    public String toString() {
+        return description;
+    }
+
+    /**
+     * Runs all checks; with failures == null it stops at nothing and allocates nothing, otherwise
+     * it appends a message per failed expectation
+     */
+    private boolean check(Response response, List<String> failures) {
+        boolean passed = true;
+        int actualStatus = response.statusCode();
+        if (status >= 0 && actualStatus != status) {
+            passed = fail(failures, "Expected status code " + status + " but got " + actualStatus);
+        } else if (successStatus && (actualStatus < 200 || actualStatus > 299)) {
+            passed = fail(failures, "Expected successful status code (2xx) but got " + actualStatus);
+        }
+        for (int i = 0; i < headerNames.length; i++) {
+            String actual = header(response, headerNames[i], headerValues[i]);
+            if (actual == null) {
+                passed = fail(failures, "Header should exist: " + headerNames[i]);
+            } else if (headerValues[i] != null && !headerValues[i].equals(actual)) {
+                passed = fail(failures, "Header '" + headerNames[i] + "': expected " + headerValues[i]
+                        + " but got " + actual);
+            }
+        }
+        if (jsonFields.size() > 0 || fragments.length > 0) {
+            byte[] body = ResponseBodies.bytes(response);
+            if (jsonFields.size() > 0) {
+                passed &= checkJson(response, body, failures);
+            }
+            for (int i = 0; i < fragments.length; i++) {
+                if (ResponseBodies.indexOf(body, fragments[i]) < 0) {
+                    passed = fail(failures, "Response body should contain: " + fragmentTexts[i]);
+                }
+            }
+        }
+        if (maxResponseTime >= 0) {
+            long responseTime = response.getTime();
+            if (responseTime < 0) {
+                passed = fail(failures, "Response time was not measured for this response");
+            } else if (responseTime >= maxResponseTime) {
+                passed = fail(failures, "Response time should be less than " + maxResponseTime + "ms but got "
+                        + responseTime + "ms");
+            }
+        }
+        return passed;
+    }
+
+    /**
+     * The expected value if any header of that name has it, otherwise the first value seen or null.
+     * Walks the headers directly: Response.getHeader allocates in RestAssured's Groovy layer, iterating
+     * Headers does not.
+     */
+    private static String header(Response response, String name, String expectedValue) {
+        String first = null;
+        for (Header header : response.getHeaders()) {
+            if (header.getName().equalsIgnoreCase(name)) {
+                if (expectedValue == null || expectedValue.equals(header.getValue())) {
+                    return header.getValue();
+                }
+                if (first == null) {
+                    first = header.getValue();
+                }
+            }
+        }
+        return first;
+    }
+
+    private boolean checkJson(Response response, byte[] body, List<String> failures) {
+        JsonScanner scanner = idleScanner.getAndSet(null);
+        if (scanner == null) {
+            scanner = new JsonScanner(jsonFields);
+        }
+        try {
+            if (!scanner.scan(body)) {
+                return fail(failures, "Response body is not valid JSON, so " + jsonFields.size()
+                        + " JSON fields could not be checked");
+            }
+            long ambiguous = scanner.ambiguous();
+            long missing = jsonFields.all & ~scanner.found() & ~ambiguous;
+            long mismatched = scanner.mismatched();
+            boolean passed = ambiguous == 0 || checkGPath(response, ambiguous, failures);
+            if (missing == 0 && mismatched == 0) {
+                return passed;
+            }
+            if (failures != null) {
+                for (int field = 0; field < jsonFields.size(); field++) {
+                    long bit = 1L << field;
+                    String path = jsonFields.paths[field];
+                    JsonNode expected = jsonFields.expectedNodes[field];
+                    if ((missing & bit) != 0) {
+                        failures.add(expected == null
+                                ? "Response should contain key: " + path
+                                : "JSON path '" + path + "': expected " + expected + " but the field is missing");
+                    } else if ((mismatched & bit) != 0) {
+                        String actual = new String(body, scanner.start(field), scanner.end(field) - scanner.start(field),
+                                StandardCharsets.UTF_8);
+                        failures.add("JSON path '" + path + "': expected " + expected + " but got " + actual);
+                    }
+                }
+            }
+            return false;
+        } finally {
+            idleScanner.compareAndSet(null, scanner);
+        }
+    }
+
+    /**
+     * Evaluates fields through JsonPath, as GPath reads them: a presence check passes on any
+     * non-null result, a value check compares the result as JSON
+     */
+    private boolean checkGPath(Response response, long fields, List<String> failures) {
+        JsonPath jsonPath = response.jsonPath();
+        boolean passed = true;
+        for (long bits = fields; bits != 0; bits &= bits - 1) {
+            int field = Long.numberOfTrailingZeros(bits);
+            String path = jsonFields.paths[field];
+            Object actual = jsonPath.get(path);
+            if (jsonFields.expected[field] == null) {
+                if (actual == null) {
+                    passed = fail(failures, "Response should contain key: " + path);
+                }
+                continue;
+            }
+            JsonNode expected = jsonFields.expectedNodes[field];
+            JsonNode actualNode = actual == null ? null : JsonCodec.mapper().valueToTree(actual);
+            boolean equal = expected == null || expected.isNull()
+                    ? actualNode == null
+                    : actualNode != null && JsonFields.sameJson(expected, actualNode);
+            if (!equal) {
+                passed = fail(failures, "JSON path '" + path + "': expected " + expected + " but got " + actual);
+            }
+        }
+        return passed;
+    }
+
+    private static boolean fail(List<String> failures, String message) {
+        if (failures != null) {
+            failures.add(message);
+        }
+        return false;
+    }
+
+    /**
+     * Builder for expectation sets
+     */
+    public static class Builder {
+        private int status = -1;
+        private boolean successStatus;
+        private final List<String> headerNames = new ArrayList<>();
+        private final List<String> headerValues = new ArrayList<>();
+        private final List<String> jsonPaths = new ArrayList<>();
+        private final List<Object> jsonValues = new ArrayList<>();
+        private final List<Boolean> jsonPresenceOnly = new ArrayList<>();
+        private final List<String> fragmentTexts = new ArrayList<>();
+        private final List<byte[]> fragments = new ArrayList<>();
+        private long maxResponseTime = -1;
+        private final StringJoiner description = new StringJoiner(", ");
+
+        private Builder() {
+        }
+
+        public Builder status(int expectedCode) {
+            status = expectedCode;
+            successStatus = false;
+            description.add("status " + expectedCode);
+            return this;
+        }
+
+        /**
+         * Any 2xx status
+         */
+        public Builder successStatus() {
+            successStatus = true;
+            status = -1;
+            description.add("status 2xx");
+            return this;
+        }
+
+        public Builder header(String name, String expectedValue) {
+            headerNames.add(name);
+            headerValues.add(expectedValue);
+            description.add("header " + name + "=" + expectedValue);
+            return this;
+        }
+
+        public Builder headerPresent(String name) {
+            headerNames.add(name);
+            headerValues.add(null);
+            description.add("header " + name);
+            return this;
+        }
+
+        /**
+         * JSON field equal to the value, compared as JSON: "id" matches 42 and 42L alike.
+         * Paths are keys and [n] indices, e.g. "category.name" or "tags[0].name"; as in GPath, a
+         * key applied to an array collects it, so "tags.name" can equal List.of("a", "b")
+         *
+         * @throws IllegalArgumentException for other path syntax, such as GPath expressions
+         */
+        public Builder jsonField(String path, Object expectedValue) {
+            addJsonField(path, expectedValue, false);
+            description.add(path + "=" + expectedValue);
+            return this;
+        }
+
+        /**
+         * JSON field present with a non-null value
+         */
+        public Builder jsonFieldPresent(String path) {
+            addJsonField(path, null, true);
+            description.add(path + " present");
+            return this;
+        }
+
+        private void addJsonField(String path, Object expectedValue, boolean presenceOnly) {
+            if (jsonPaths.size() == JsonFields.MAX_FIELDS) {
+                throw new IllegalArgumentException("At most " + JsonFields.MAX_FIELDS + " JSON fields per expectation set");
+            }
+            JsonFields.parse(path, null, null);
+            jsonPaths.add(path);
+            jsonValues.add(expectedValue);
+            jsonPresenceOnly.add(presenceOnly);
+        }
+
+        /**
+         * Text the body must contain, matched as UTF-8 bytes
+         */
+        public Builder bodyContains(String text) {
+            fragmentTexts.add(text);
+            fragments.add(text.getBytes(StandardCharsets.UTF_8));
+            description.add("body contains " + text);
+            return this;
+        }
+
+        public Builder bodyContains(byte[] fragment) {
+            fragmentTexts.add(fragment.length + " given bytes");
+            fragments.add(fragment.clone());
+            description.add("body contains " + fragment.length + " bytes");
+            return this;
+        }
+
+        /**
+         * Response time strictly below the limit
+         */
+        public Builder maxResponseTime(long maxTimeMs) {
+            maxResponseTime = maxTimeMs;
+            description.add("time < " + maxTimeMs + "ms");
+            return this;
+        }
+
+        public ResponseExpectations build() {
+            return new ResponseExpectations(this);
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package com.petstore.batch;
+
+import io.restassured.response.Response;
+import com.petstore.api.PetApi;
+import com.petstore.api.StoreApi;
+import com.petstore.api.UserApi;
+import com.petstore.config.ConfigManager;
+import com.petstore.models.Order;
+import com.petstore.models.Pet;
+import com.petstore.models.User;
+import com.petstore.throttle.ConcurrencyLimiter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Micro-batching front for fire-and-forget setup and teardown writes.
+ * <p>
+ * Each kind of write (addPet, placeOrder, createUser, deletePet, deleteOrder, deleteUser) is
+ * collected for up to batch.window milliseconds or batch.max.size items, whichever comes first,
+ * then dispatched at once: users through /user/createWithArray in one request, everything else
+ * as concurrent requests through the async API methods, with at most {@code concurrency}
+ * requests in flight for the whole writer. Callers get a future per item, completed with that
+ * item's response (the shared createWithArray response for users). {@link #close()} flushes
+ * what is queued and waits for every write to finish.
+ * <pre>{@code
+ * try (BatchWriter writer = new BatchWriter()) {
+ *     petIds.forEach(writer::deletePet);
+ * }
+ * }</pre>
+ */
+public class BatchWriter implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(BatchWriter.class);
+
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final ConcurrencyLimiter limiter;
+    private final Set<CompletableFuture<Response>> outstanding = ConcurrentHashMap.newKeySet();
+    private final List<Batch<?>> batches = new ArrayList<>();
+    private final Batch<Pet> addPets;
+    private final Batch<Order> placeOrders;
+    private final Batch<User> createUsers;
+    private final Batch<Long> deletePets;
+    private final Batch<Long> deleteOrders;
+    private final Batch<String> deleteUsers;
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder requests = new LongAdder();
+    private volatile boolean closed;
+
+    public BatchWriter() {
+        this(new PetApi(), new StoreApi(), new UserApi(),
+                Duration.ofMillis(ConfigManager.getInstance().getBatchWindow()),
+                ConfigManager.getInstance().getBatchMaxSize(),
+                ConfigManager.getInstance().getMaxConcurrency());
+    }
+
+    /**
+     * @param window       how long a partial batch waits for more writes of its kind
+     * @param maxBatchSize writes that trigger a batch without waiting for the window
+     * @param concurrency  maximum requests in flight across all kinds
+     */
+    public BatchWriter(PetApi petApi, StoreApi storeApi, UserApi userApi, Duration window, int maxBatchSize,
+                       int concurrency) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize must be at least 1 but was " + maxBatchSize);
+        }
+        this.windowNanos = window.toNanos();
+        this.maxBatchSize = maxBatchSize;
+        this.limiter = new ConcurrencyLimiter(concurrency, false, 0);
+        addPets = batch("addPet", petApi::addPetAsync, null);
+        placeOrders = batch("placeOrder", storeApi::placeOrderAsync, null);
+        createUsers = batch("createUser", null, userApi::createUsersWithArrayAsync);
+        deletePets = batch("deletePet", petApi::deletePetAsync, null);
+        deleteOrders = batch("deleteOrder", storeApi::deleteOrderAsync, null);
+        deleteUsers = batch("deleteUser", userApi::deleteUserAsync, null);
+    }
+
+    public CompletableFuture<Response> addPet(Pet pet) {
+        return addPets.add(pet);
+    }
+
+    public CompletableFuture<Response> placeOrder(Order order) {
+        return placeOrders.add(order);
+    }
+
+    /**
+     * Queues a user for the next createWithArray request
+     */
+    public CompletableFuture<Response> createUser(User user) {
+        return createUsers.add(user);
+    }
+
+    public CompletableFuture<Response> deletePet(Long petId) {
+        return deletePets.add(petId);
+    }
+
+    public CompletableFuture<Response> deleteOrder(Long orderId) {
+        return deleteOrders.add(orderId);
+    }
+
+    public CompletableFuture<Response> deleteUser(String username) {
+        return deleteUsers.add(username);
+    }
+
+    /**
+     * Sends every queued write now instead of waiting for its window
+     */
+    public void flush() {
+        for (Batch<?> batch : batches) {
+            batch.flush();
+        }
+    }
+
+    /**
+     * Flushes and waits until every write submitted so far has completed; failed writes do not
+     * throw here, they complete their own futures exceptionally
+     */
+    public void awaitCompletion() {
+        flush();
+        CompletableFuture.allOf(outstanding.toArray(CompletableFuture[]::new))
+                .handle((ignored, error) -> null)
+                .join();
+    }
+
+    /**
+     * Writes accepted so far
+     */
+    public long getSubmitted() {
+        return submitted.sum();
+    }
+
+    /**
+     * Writes that failed or were answered with a status of 400 or above
+     */
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    /**
+     * HTTP requests sent, fewer than writes when users are batched
+     */
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        long start = System.nanoTime();
+        awaitCompletion();
+        logger.info("Batch writer finished {} writes with {} requests ({} failed), drained in {} ms",
+                submitted.sum(), requests.sum(), failed.sum(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private <T> Batch<T> batch(String name, Function<T, CompletableFuture<Response>> single,
+                               Function<List<T>, CompletableFuture<Response>> bulk) {
+        Batch<T> batch = new Batch<>(name, single, bulk);
+        batches.add(batch);
+        return batch;
+    }
+
+    private record Pending<T>(T item, CompletableFuture<Response> result) {
+    }
+
+    /**
+     * Queue of one kind of write; sends either each item on its own or the whole batch through a bulk endpoint
+     */
+    private final class Batch<T> {
+        private final String name;
+        private final Function<T, CompletableFuture<Response>> single;
+        private final Function<List<T>, CompletableFuture<Response>> bulk;
+        private final ReentrantLock lock = new ReentrantLock();
+        private List<Pending<T>> pending = new ArrayList<>();
+
+        Batch(String name, Function<T, CompletableFuture<Response>> single,
+              Function<List<T>, CompletableFuture<Response>> bulk) {
+            this.name = name;
+            this.single = single;
+            this.bulk = bulk;
+        }
+
+        CompletableFuture<Response> add(T item) {
+            if (closed) {
+                throw new IllegalStateException("BatchWriter is closed");
+            }
+            CompletableFuture<Response> result = new CompletableFuture<>();
+            outstanding.add(result);
+            result.whenComplete((response, error) -> outstanding.remove(result));
+            submitted.increment();
+            List<Pending<T>> full = null;
+            boolean first;
+            lock.lock();
+            try {
+                pending.add(new Pending<>(item, result));
+                first = pending.size() == 1;
+                if (pending.size() >= maxBatchSize) {
+                    full = take();
+                }
+            } finally {
+                lock.unlock();
+            }
+            if (full != null) {
+                dispatch(full);
+            } else if (first) {
+                // A stale timer left over from a batch that filled up early only flushes the next one sooner
+                CompletableFuture.delayedExecutor(windowNanos, TimeUnit.NANOSECONDS, Runnable::run).execute(this::flush);
+            }
+            return result;
+        }
+
+        void flush() {
+            List<Pending<T>> ready;
+            lock.lock();
+            try {
+                ready = pending.isEmpty() ? null : take();
+            } finally {
+                lock.unlock();
+            }
+            if (ready != null) {
+                dispatch(ready);
+            }
+        }
+
+        private List<Pending<T>> take() {
+            List<Pending<T>> ready = pending;
+            pending = new ArrayList<>();
+            return ready;
+        }
+
+        private void dispatch(List<Pending<T>> ready) {
+            logger.debug("Dispatching {} {} writes", ready.size(), name);
+            if (bulk != null) {
+                List<T> items = new ArrayList<>(ready.size());
+                for (Pending<T> entry : ready) {
+                    items.add(entry.item());
+                }
+                send(() -> bulk.apply(items)).whenComplete((response, error) -> {
+                    for (Pending<T> entry : ready) {
+                        complete(entry.result(), response, error);
+                    }
+                });
+                return;
+            }
+            for (Pending<T> entry : ready) {
+                send(() -> single.apply(entry.item()))
+                        .whenComplete((response, error) -> complete(entry.result(), response, error));
+            }
+        }
+    }
+
+    private CompletableFuture<Response> send(Supplier<CompletableFuture<Response>> call) {
+        return limiter.acquire().thenCompose(ignored -> {
+            long start = System.nanoTime();
+            requests.increment();
+            CompletableFuture<Response> sent;
+            try {
+                sent = call.get();
+            } catch (RuntimeException e) {
+                sent = CompletableFuture.failedFuture(e);
+            }
+            return sent.whenComplete((response, error) -> limiter.release(false, System.nanoTime() - start));
+        });
+    }
+
+    private void complete(CompletableFuture<Response> result, Response response, Throwable error) {
+        if (error != null || response.statusCode() >= 400) {
+            failed.increment();
+        }
+        if (error != null) {
+            result.completeExceptionally(error);
+        } else {
+            result.complete(response);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.petstore.cache;
+
+/**
+ * Counters of a {@link ResponseCache} since startup or the last reset
+ *
+ * @param hits          lookups answered from the cache without a request
+ * @param misses        lookups that sent a full request
+ * @param revalidations stale entries confirmed unchanged by a 304
+ * @param evictions     entries dropped to stay within cache.max.entries
+ * @param invalidations entries dropped because a write changed them
+ * @param size          entries currently cached
+ */
+public record CacheStats(long hits, long misses, long revalidations, long evictions, long invalidations, long size) {
+
+    /**
+     * Share of lookups that needed no full response from the server (hits and 304s)
+     */
+    public double hitRate() {
+        long lookups = hits + misses + revalidations;
+        return lookups == 0 ? 0 : (double) (hits + revalidations) / lookups;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("hits=%d misses=%d revalidations=%d evictions=%d invalidations=%d size=%d hitRate=%.1f%%",
+                hits, misses, revalidations, evictions, invalidations, size, hitRate() * 100);
+    }
+}
@@ -0,0 +1,81 @@
+package com.petstore.cache;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * Size bound in the style of W-TinyLFU: new keys enter a small LRU window (1% of the capacity);
+ * a key leaving the window only displaces the main region's LRU victim if the frequency sketch
+ * says it is used more often, so one-off lookups cannot flush popular fixtures. Not thread-safe;
+ * {@link ResponseCache} calls it under a lock.
+ */
+final class EvictionPolicy {
+    private final LinkedHashMap<String, Boolean> window = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<String, Boolean> main = new LinkedHashMap<>(16, 0.75f, true);
+    private final FrequencySketch sketch;
+    private final int windowCapacity;
+    private final int mainCapacity;
+
+    EvictionPolicy(int maximumSize) {
+        windowCapacity = Math.max(1, maximumSize / 100);
+        mainCapacity = Math.max(0, maximumSize - windowCapacity);
+        sketch = new FrequencySketch(maximumSize);
+    }
+
+    void recordAccess(String key) {
+        sketch.increment(key);
+        if (window.get(key) == null) {
+            main.get(key);
+        }
+    }
+
+    /**
+     * Adds a key and returns the keys evicted to make room (possibly the new key itself)
+     */
+    List<String> add(String key) {
+        sketch.increment(key);
+        if (window.containsKey(key) || main.containsKey(key)) {
+            recordAccess(key);
+            return List.of();
+        }
+        window.put(key, Boolean.TRUE);
+        if (window.size() <= windowCapacity) {
+            return List.of();
+        }
+        String candidate = removeEldest(window);
+        if (main.size() < mainCapacity) {
+            main.put(candidate, Boolean.TRUE);
+            return List.of();
+        }
+        List<String> evicted = new ArrayList<>(1);
+        String victim = main.isEmpty() ? null : main.keySet().iterator().next();
+        if (victim != null && sketch.frequency(candidate) > sketch.frequency(victim)) {
+            main.remove(victim);
+            main.put(candidate, Boolean.TRUE);
+            evicted.add(victim);
+        } else {
+            evicted.add(candidate);
+        }
+        return evicted;
+    }
+
+    void remove(String key) {
+        if (window.remove(key) == null) {
+            main.remove(key);
+        }
+    }
+
+    void clear() {
+        window.clear();
+        main.clear();
+    }
+
+    private static String removeEldest(LinkedHashMap<String, Boolean> region) {
+        Iterator<String> keys = region.keySet().iterator();
+        String eldest = keys.next();
+        keys.remove();
+        return eldest;
+    }
+}
@@ -0,0 +1,228 @@
+package com.petstore.cache;
+
+import com.petstore.config.ConfigManager;
+import io.restassured.response.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Opt-in cache of read-only lookups (pet, user, order and inventory GETs) so test setup that
+ * reads the same fixtures over and over does not pay a round trip each time.
+ * <p>
+ * Entries live for cache.ttl milliseconds; after that an entry with an ETag is revalidated with
+ * If-None-Match and a 304 keeps it for another TTL. Size is bounded by cache.max.entries with a
+ * W-TinyLFU style {@link EvictionPolicy}. Writes through the API clients invalidate the paths
+ * they change, and a lookup that raced with an invalidation is not stored. Reads are lock-free;
+ * only inserts, invalidations and (when uncontended) access bookkeeping take the policy lock.
+ */
+public class ResponseCache {
+    private static final Logger logger = LoggerFactory.getLogger(ResponseCache.class);
+    private static final ResponseCache instance = new ResponseCache();
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ReentrantLock policyLock = new ReentrantLock();
+    private final AtomicLong epoch = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder revalidations = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    private EvictionPolicy policy;
+    private volatile boolean enabled;
+    private volatile long ttlNanos;
+
+    private ResponseCache() {
+        configure();
+        ConfigManager.getInstance().addReloadListener(snapshot -> configure());
+    }
+
+    public static ResponseCache getInstance() {
+        return instance;
+    }
+
+    /**
+     * Cached response with its validator and expiry
+     */
+    public record Entry(Response response, String etag, long expiresAtNanos) {
+
+        public boolean isFresh() {
+            return System.nanoTime() - expiresAtNanos < 0;
+        }
+    }
+
+    private void configure() {
+        ConfigManager config = ConfigManager.getInstance();
+        policyLock.lock();
+        try {
+            entries.clear();
+            policy = new EvictionPolicy(config.getCacheMaxEntries());
+            ttlNanos = TimeUnit.MILLISECONDS.toNanos(config.getCacheTtl());
+            enabled = config.isCacheEnabled() && config.getCacheMaxEntries() > 0;
+        } finally {
+            policyLock.unlock();
+        }
+        if (enabled) {
+            logger.info("Response cache enabled: max {} entries, ttl {} ms", config.getCacheMaxEntries(), config.getCacheTtl());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Current invalidation epoch; pass it to {@link #put} so a response fetched before a write is not stored after it
+     */
+    public long epoch() {
+        return epoch.get();
+    }
+
+    /**
+     * Fresh entry (a hit), stale entry that can be revalidated with its ETag, or null (a miss)
+     */
+    public Entry lookup(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (entry.isFresh()) {
+            hits.increment();
+            recordAccess(key);
+            return entry;
+        }
+        if (entry.etag() == null) {
+            remove(key, entry);
+            misses.increment();
+            return null;
+        }
+        return entry;
+    }
+
+    /**
+     * Stores a 200 response unless the key was invalidated since the given epoch
+     */
+    public void put(String key, Response response, long epochAtRequest) {
+        if (!enabled || response.statusCode() != 200) {
+            return;
+        }
+        Entry entry = new Entry(response, response.getHeader("ETag"), System.nanoTime() + ttlNanos);
+        policyLock.lock();
+        try {
+            if (epoch.get() != epochAtRequest) {
+                return;
+            }
+            entries.put(key, entry);
+            for (String evicted : policy.add(key)) {
+                entries.remove(evicted);
+                evictions.increment();
+            }
+        } finally {
+            policyLock.unlock();
+        }
+    }
+
+    /**
+     * Outcome of revalidating a stale entry: a 304 renews it and returns the cached response,
+     * anything else replaces it
+     */
+    public Response revalidated(String key, Entry stale, Response response, long epochAtRequest) {
+        if (response.statusCode() != 304) {
+            misses.increment();
+            remove(key, stale);
+            put(key, response, epochAtRequest);
+            return response;
+        }
+        revalidations.increment();
+        Entry renewed = new Entry(stale.response(), stale.etag(), System.nanoTime() + ttlNanos);
+        if (epoch.get() == epochAtRequest) {
+            entries.replace(key, stale, renewed);
+        }
+        recordAccess(key);
+        return stale.response();
+    }
+
+    /**
+     * Drops the given keys after a write changed them
+     */
+    public void invalidate(String... keys) {
+        if (!enabled) {
+            return;
+        }
+        policyLock.lock();
+        try {
+            epoch.incrementAndGet();
+            for (String key : keys) {
+                if (entries.remove(key) != null) {
+                    invalidations.increment();
+                }
+                policy.remove(key);
+            }
+        } finally {
+            policyLock.unlock();
+        }
+    }
+
+    /**
+     * Drops every entry, e.g. between suites that share a JVM
+     */
+    public void clear() {
+        policyLock.lock();
+        try {
+            epoch.incrementAndGet();
+            entries.clear();
+            policy.clear();
+        } finally {
+            policyLock.unlock();
+        }
+    }
+
+    public CacheStats stats() {
+        return new CacheStats(hits.sum(), misses.sum(), revalidations.sum(), evictions.sum(),
+                invalidations.sum(), entries.size());
+    }
+
+    /**
+     * Zeroes the counters without dropping entries
+     */
+    public void resetStats() {
+        hits.reset();
+        misses.reset();
+        revalidations.reset();
+        evictions.reset();
+        invalidations.reset();
+    }
+
+    /**
+     * Drops an expired entry unless it was already replaced, together with its slot in the eviction policy
+     */
+    private void remove(String key, Entry entry) {
+        policyLock.lock();
+        try {
+            if (entries.remove(key, entry)) {
+                policy.remove(key);
+            }
+        } finally {
+            policyLock.unlock();
+        }
+    }
+
+    private void recordAccess(String key) {
+        // Frequency bookkeeping is best effort: skip it rather than make a hit wait for the lock
+        if (policyLock.tryLock()) {
+            try {
+                policy.recordAccess(key);
+            } finally {
+                policyLock.unlock();
+            }
+        }
+    }
+}
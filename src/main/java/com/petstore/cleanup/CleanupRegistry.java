@@ -0,0 +1,199 @@
+package com.petstore.cleanup;
+
+import io.restassured.response.Response;
+import com.petstore.api.PetApi;
+import com.petstore.api.StoreApi;
+import com.petstore.api.UserApi;
+import com.petstore.batch.BatchWriter;
+import com.petstore.config.ConfigManager;
+import com.petstore.config.ConfigSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Remembers every pet, order and user created through the API clients so they can be deleted
+ * when a test class or the suite ends (cleanup.scope), instead of piling up on the server.
+ * <p>
+ * {@link #cleanUp()} deletes in dependency order, orders before the pets they reference, with
+ * pets and users removed together afterwards; within each phase deletes run concurrently through
+ * a {@link BatchWriter}, so at most execution.max.concurrency are in flight. Entities deleted by
+ * the tests themselves are forgotten as they go. Registrations are tied to the current base.url:
+ * pointing it at another server forgets what was created on the old one.
+ */
+public class CleanupRegistry {
+    private static final Logger logger = LoggerFactory.getLogger(CleanupRegistry.class);
+    private static final CleanupRegistry instance = new CleanupRegistry();
+
+    private final Set<Long> orders = ConcurrentHashMap.newKeySet();
+    private final Set<Long> pets = ConcurrentHashMap.newKeySet();
+    private final Set<String> users = ConcurrentHashMap.newKeySet();
+    private volatile boolean enabled;
+    private volatile String baseUrl;
+
+    private CleanupRegistry() {
+        configure(ConfigManager.getInstance().snapshot());
+        ConfigManager.getInstance().addReloadListener(this::configure);
+    }
+
+    public static CleanupRegistry getInstance() {
+        return instance;
+    }
+
+    private synchronized void configure(ConfigSnapshot snapshot) {
+        enabled = snapshot.isCleanupEnabled();
+        if (!snapshot.getBaseUrl().equals(baseUrl)) {
+            if (getPending() > 0) {
+                logger.info("Forgetting {} entities created on {}", getPending(), baseUrl);
+            }
+            clear();
+            baseUrl = snapshot.getBaseUrl();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void registerPet(Long petId) {
+        if (enabled && petId != null) {
+            pets.add(petId);
+        }
+    }
+
+    public void registerOrder(Long orderId) {
+        if (enabled && orderId != null) {
+            orders.add(orderId);
+        }
+    }
+
+    public void registerUser(String username) {
+        if (enabled && username != null) {
+            users.add(username);
+        }
+    }
+
+    public void forgetPet(Long petId) {
+        pets.remove(petId);
+    }
+
+    public void forgetOrder(Long orderId) {
+        orders.remove(orderId);
+    }
+
+    public void forgetUser(String username) {
+        users.remove(username);
+    }
+
+    /**
+     * Entities registered and not yet deleted
+     */
+    public int getPending() {
+        return orders.size() + pets.size() + users.size();
+    }
+
+    /**
+     * Forgets every registration without deleting anything
+     */
+    public void clear() {
+        orders.clear();
+        pets.clear();
+        users.clear();
+    }
+
+    /**
+     * Deletes everything registered so far with the default API clients
+     */
+    public CleanupReport cleanUp() {
+        return cleanUp(new PetApi(), new StoreApi(), new UserApi());
+    }
+
+    public CleanupReport cleanUp(PetApi petApi, StoreApi storeApi, UserApi userApi) {
+        List<Long> orderIds = drain(orders);
+        List<Long> petIds = drain(pets);
+        List<String> usernames = drain(users);
+        if (orderIds.isEmpty() && petIds.isEmpty() && usernames.isEmpty()) {
+            return CleanupReport.empty();
+        }
+        ConfigManager config = ConfigManager.getInstance();
+        logger.info("Cleaning up {} orders, {} pets and {} users", orderIds.size(), petIds.size(), usernames.size());
+        long start = System.nanoTime();
+        Tally tally = new Tally();
+        try (BatchWriter writer = new BatchWriter(petApi, storeApi, userApi, Duration.ofMillis(config.getBatchWindow()),
+                config.getBatchMaxSize(), config.getMaxConcurrency())) {
+            List<CompletableFuture<Response>> orderDeletes = submit(orderIds, writer::deleteOrder);
+            writer.awaitCompletion();
+            tally.add(orderIds, orderDeletes, orders);
+
+            List<CompletableFuture<Response>> petDeletes = submit(petIds, writer::deletePet);
+            List<CompletableFuture<Response>> userDeletes = submit(usernames, writer::deleteUser);
+            writer.awaitCompletion();
+            tally.add(petIds, petDeletes, pets);
+            tally.add(usernames, userDeletes, users);
+        }
+        CleanupReport report = new CleanupReport(orderIds.size(), petIds.size(), usernames.size(),
+                tally.deleted, tally.alreadyGone, tally.leaked, Duration.ofNanos(System.nanoTime() - start));
+        if (report.leaked() > 0) {
+            logger.warn("{}", report);
+        } else {
+            logger.info("{}", report);
+        }
+        return report;
+    }
+
+    private static <T> List<T> drain(Set<T> registered) {
+        List<T> drained = new ArrayList<>(registered.size());
+        for (T key : registered) {
+            if (registered.remove(key)) {
+                drained.add(key);
+            }
+        }
+        return drained;
+    }
+
+    private static <T> List<CompletableFuture<Response>> submit(List<T> keys,
+                                                                Function<T, CompletableFuture<Response>> delete) {
+        List<CompletableFuture<Response>> deletes = new ArrayList<>(keys.size());
+        for (T key : keys) {
+            deletes.add(delete.apply(key));
+        }
+        return deletes;
+    }
+
+    private static final class Tally {
+        long deleted;
+        long alreadyGone;
+        long leaked;
+
+        /**
+         * Counts the outcomes; anything not deleted or gone goes back into the registry for the next pass
+         */
+        <T> void add(List<T> keys, List<CompletableFuture<Response>> deletes, Set<T> registered) {
+            for (int i = 0; i < keys.size(); i++) {
+                int statusCode;
+                try {
+                    statusCode = deletes.get(i).join().statusCode();
+                } catch (CompletionException e) {
+                    logger.debug("Failed to delete {}", keys.get(i), e.getCause());
+                    statusCode = -1;
+                }
+                if (statusCode >= 200 && statusCode < 300) {
+                    deleted++;
+                } else if (statusCode == 404) {
+                    alreadyGone++;
+                } else {
+                    leaked++;
+                    registered.add(keys.get(i));
+                }
+            }
+        }
+    }
+}
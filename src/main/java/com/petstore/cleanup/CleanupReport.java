@@ -0,0 +1,40 @@
+package com.petstore.cleanup;
+
+import java.time.Duration;
+
+/**
+ * Outcome of one cleanup pass
+ *
+ * @param orders      orders the pass tried to delete
+ * @param pets        pets the pass tried to delete
+ * @param users       users the pass tried to delete
+ * @param deleted     entities the server deleted
+ * @param alreadyGone entities that were already gone (404)
+ * @param leaked      entities that could not be deleted; they stay registered for the next pass
+ */
+public record CleanupReport(int orders, int pets, int users, long deleted, long alreadyGone, long leaked,
+                            Duration elapsed) {
+
+    public static CleanupReport empty() {
+        return new CleanupReport(0, 0, 0, 0, 0, 0, Duration.ZERO);
+    }
+
+    public int total() {
+        return orders + pets + users;
+    }
+
+    /**
+     * Entities removed (deleted or found gone) per second
+     */
+    public double throughput() {
+        double seconds = Math.max(elapsed.toNanos() / 1e9, 1e-9);
+        return (deleted + alreadyGone) / seconds;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Cleaned up %d orders, %d pets, %d users: %d deleted, %d already gone, %d leaked"
+                        + " in %.1f s, %.1f/s",
+                orders, pets, users, deleted, alreadyGone, leaked, elapsed.toMillis() / 1000.0, throughput());
+    }
+}
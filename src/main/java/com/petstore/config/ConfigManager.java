@@ -1,61 +1,424 @@
 package com.petstore.config;
 
+import com.petstore.logging.LogMode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.http.HttpClient;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 /**
- * Configuration manager for loading and accessing application properties
+ * Configuration manager for loading and accessing application properties.
+ * <p>
+ * Properties are resolved in layers, each overriding the one before: config.properties, the
+ * profile file config-&lt;name&gt;.properties when config.profile names one (local-stub, staging,
+ * perf), environment variables (PETSTORE_ plus the key upper-cased with dots as underscores, e.g.
+ * PETSTORE_BASE_URL), then JVM system properties. The result is an immutable
+ * {@link ConfigSnapshot} held in a volatile field, so getters never lock. {@link #reload()}
+ * rebuilds the snapshot and swaps it in; readers keep using the old one until the swap. With
+ * config.reload.interval set, the file is re-read periodically on a daemon thread.
  */
 public class ConfigManager {
-    private static final Properties properties = new Properties();
-    private static ConfigManager instance;
+    private static final Logger logger = LoggerFactory.getLogger(ConfigManager.class);
+    private static final String CONFIG_FILE = "config.properties";
+    private static final String ENV_PREFIX = "PETSTORE_";
+    private static final String PROFILE_KEY = "config.profile";
+
+    private final List<Consumer<ConfigSnapshot>> reloadListeners = new CopyOnWriteArrayList<>();
+    private volatile ConfigSnapshot snapshot;
 
     private ConfigManager() {
-        loadProperties();
+        snapshot = load();
+        logger.info("Configuration profile: {}", snapshot.getProfile() == null ? "default" : snapshot.getProfile());
+        long interval = snapshot.getReloadInterval();
+        if (interval > 0) {
+            ScheduledExecutorService reloader = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "config-reloader");
+                thread.setDaemon(true);
+                return thread;
+            });
+            reloader.scheduleWithFixedDelay(this::reloadQuietly, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static final class Holder {
+        private static final ConfigManager INSTANCE = new ConfigManager();
+    }
+
+    public static ConfigManager getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Current configuration; hold on to it to read several values consistently
+     */
+    public ConfigSnapshot snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Re-reads every layer and swaps in the new snapshot, notifying reload listeners if anything
+     * changed. A malformed value leaves the current snapshot in place and is rethrown.
+     */
+    public synchronized ConfigSnapshot reload() {
+        ConfigSnapshot previous = snapshot;
+        ConfigSnapshot next = load();
+        if (next.values().equals(previous.values())) {
+            return previous;
+        }
+        snapshot = next;
+        logger.info("Configuration reloaded");
+        for (Consumer<ConfigSnapshot> listener : reloadListeners) {
+            listener.accept(next);
+        }
+        return next;
     }
 
-    public static synchronized ConfigManager getInstance() {
-        if (instance == null) {
-            instance = new ConfigManager();
+    /**
+     * Called with the new snapshot after every reload that changed a value
+     */
+    public void addReloadListener(Consumer<ConfigSnapshot> listener) {
+        reloadListeners.add(listener);
+    }
+
+    public void removeReloadListener(Consumer<ConfigSnapshot> listener) {
+        reloadListeners.remove(listener);
+    }
+
+    private void reloadQuietly() {
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            logger.warn("Keeping current configuration: {}", e.getMessage());
+        }
+    }
+
+    private ConfigSnapshot load() {
+        return resolve(System.getenv(), System.getProperties());
+    }
+
+    /**
+     * Layers config.properties, the selected profile, the PETSTORE_ variables among the given
+     * environment and the given system properties into a snapshot, as {@link #reload()} does with
+     * the process's own; useful to check what a given environment resolves to
+     */
+    public static ConfigSnapshot resolve(Map<String, String> env, Properties system) {
+        Map<String, String> environment = new HashMap<>();
+        for (Map.Entry<String, String> variable : env.entrySet()) {
+            if (variable.getKey().startsWith(ENV_PREFIX)) {
+                String key = variable.getKey().substring(ENV_PREFIX.length()).toLowerCase(Locale.ROOT).replace('_', '.');
+                environment.put(key, variable.getValue());
+            }
+        }
+
+        Map<String, String> values = new HashMap<>();
+        putAll(values, readResource(CONFIG_FILE, false));
+        String profile = system.getProperty(PROFILE_KEY, environment.getOrDefault(PROFILE_KEY, values.get(PROFILE_KEY)));
+        if (profile != null && !profile.isBlank()) {
+            putAll(values, readResource("config-" + profile.trim() + ".properties", true));
+        }
+        values.putAll(environment);
+        putAll(values, system);
+        if (profile != null && !profile.isBlank()) {
+            values.put(PROFILE_KEY, profile.trim());
         }
-        return instance;
+        return new ConfigSnapshot(values);
     }
 
-    private void loadProperties() {
-        try (InputStream inputStream = getClass().getClassLoader()
-                .getResourceAsStream("config.properties")) {
+    private static Properties readResource(String name, boolean required) {
+        Properties properties = new Properties();
+        try (InputStream inputStream = ConfigManager.class.getClassLoader().getResourceAsStream(name)) {
             if (inputStream != null) {
                 properties.load(inputStream);
+            } else if (required) {
+                throw new IllegalArgumentException("Unknown config profile, " + name + " not found");
             } else {
-                System.err.println("config.properties file not found");
+                System.err.println(name + " file not found");
             }
         } catch (IOException e) {
             System.err.println("Error loading configuration: " + e.getMessage());
         }
+        return properties;
+    }
+
+    private static void putAll(Map<String, String> values, Properties properties) {
+        for (String key : properties.stringPropertyNames()) {
+            values.put(key, properties.getProperty(key));
+        }
     }
 
     public String getBaseUrl() {
-        return getProperty("base.url", "https://petstore.swagger.io/v2");
+        return snapshot.getBaseUrl();
     }
 
     public int getRequestTimeout() {
-        return Integer.parseInt(getProperty("request.timeout", "5000"));
+        return snapshot.getRequestTimeout();
     }
 
     public int getResponseTimeout() {
-        return Integer.parseInt(getProperty("response.timeout", "5000"));
+        return snapshot.getResponseTimeout();
+    }
+
+    public int getPoolMaxTotal() {
+        return snapshot.getPoolMaxTotal();
+    }
+
+    public int getPoolMaxPerRoute() {
+        return snapshot.getPoolMaxPerRoute();
+    }
+
+    public long getPoolIdleTimeout() {
+        return snapshot.getPoolIdleTimeout();
+    }
+
+    public long getKeepAlive() {
+        return snapshot.getKeepAlive();
+    }
+
+    /**
+     * HTTP_1_1 (RestAssured over the pooled connections) or HTTP_2 (multiplexed JDK client for all requests)
+     */
+    public HttpClient.Version getHttpVersion() {
+        return snapshot.getHttpVersion();
+    }
+
+    /**
+     * Content codings offered in Accept-Encoding and decoded on receipt, in order of preference
+     * (gzip and deflate by default); empty when http.compression=none
+     */
+    public List<String> getHttpCompression() {
+        return snapshot.getHttpCompression();
+    }
+
+    /**
+     * Thread type used for fan-out work: "virtual" or "platform"
+     */
+    public String getExecutionThreads() {
+        return snapshot.getExecutionThreads();
+    }
+
+    public int getMaxConcurrency() {
+        return snapshot.getMaxConcurrency();
+    }
+
+    /**
+     * Users sent per createWithArray request when seeding
+     */
+    public int getSeedBatchSize() {
+        return snapshot.getSeedBatchSize();
+    }
+
+    /**
+     * Attempts per seeding request, including the first
+     */
+    public int getSeedMaxAttempts() {
+        return snapshot.getSeedMaxAttempts();
+    }
+
+    /**
+     * Milliseconds a BatchWriter waits for more writes of the same kind before sending a partial batch
+     */
+    public long getBatchWindow() {
+        return snapshot.getBatchWindow();
     }
 
+    /**
+     * Writes a BatchWriter collects before sending them without waiting for the window
+     */
+    public int getBatchMaxSize() {
+        return snapshot.getBatchMaxSize();
+    }
+
+    /**
+     * Whether pets, orders and users created through the API clients are recorded and deleted after the tests
+     */
+    public boolean isCleanupEnabled() {
+        return snapshot.isCleanupEnabled();
+    }
+
+    /**
+     * When recorded entities are deleted: "suite" (at the end of the suite) or "class" (after every test class)
+     */
+    public String getCleanupScope() {
+        return snapshot.getCleanupScope();
+    }
+
+    /**
+     * Node id (0-1023) embedded in generated ids; give each fork its own, or leave unset for a random one
+     */
+    public Integer getIdNode() {
+        return snapshot.getIdNode();
+    }
+
+    /**
+     * Seed for reproducible test data, or null for fresh data on every run
+     */
+    public Long getIdSeed() {
+        return snapshot.getIdSeed();
+    }
+
+    public boolean isMetricsEnabled() {
+        return snapshot.isMetricsEnabled();
+    }
+
+    /**
+     * File the per-endpoint latency summary is written to at the end of a suite
+     */
+    public String getMetricsExportFile() {
+        return snapshot.getMetricsExportFile();
+    }
+
+    /**
+     * Exchange logging mode: OFF, ON_FAILURE, SAMPLED or FULL (see com.petstore.logging.LogMode)
+     */
     public String getLogLevel() {
-        return getProperty("log.level", "INFO");
+        return snapshot.getLogLevel();
+    }
+
+    /**
+     * log.level parsed when the snapshot was built, so an unknown level fails load or reload
+     */
+    public LogMode getLogMode() {
+        return snapshot.getLogMode();
+    }
+
+    /**
+     * In SAMPLED mode one in this many exchanges is logged
+     */
+    public int getLogSampleRate() {
+        return snapshot.getLogSampleRate();
+    }
+
+    /**
+     * Number of recent exchanges kept for dumping in ON_FAILURE mode
+     */
+    public int getLogBufferSize() {
+        return snapshot.getLogBufferSize();
+    }
+
+    /**
+     * Attempts per idempotent request, including the first; 1 disables retries
+     */
+    public int getRetryMaxAttempts() {
+        return snapshot.getRetryMaxAttempts();
+    }
+
+    /**
+     * HTTP methods that are retried (GET, PUT and DELETE by default)
+     */
+    public Set<String> getRetryMethods() {
+        return snapshot.getRetryMethods();
+    }
+
+    /**
+     * Status codes treated as transient; connection errors are always transient
+     */
+    public Set<Integer> getRetryStatuses() {
+        return snapshot.getRetryStatuses();
+    }
+
+    /**
+     * Backoff ceiling in milliseconds before the first retry; it doubles per retry up to retry.backoff.max
+     */
+    public long getRetryBackoffBase() {
+        return snapshot.getRetryBackoffBase();
+    }
+
+    public long getRetryBackoffMax() {
+        return snapshot.getRetryBackoffMax();
+    }
+
+    /**
+     * Retries earned per request sent, e.g. 0.1 lets retries add at most 10% to the request load
+     */
+    public double getRetryBudgetRatio() {
+        return snapshot.getRetryBudgetRatio();
+    }
+
+    /**
+     * Retries the budget can hold (and starts with)
+     */
+    public int getRetryBudgetMax() {
+        return snapshot.getRetryBudgetMax();
+    }
+
+    /**
+     * Whether pet, user, order and inventory lookups go through the ResponseCache
+     */
+    public boolean isCacheEnabled() {
+        return snapshot.isCacheEnabled();
+    }
+
+    /**
+     * Responses the cache holds before evicting the least valuable
+     */
+    public int getCacheMaxEntries() {
+        return snapshot.getCacheMaxEntries();
+    }
+
+    /**
+     * Milliseconds a cached response is used without asking the server; after that it is revalidated by ETag
+     */
+    public long getCacheTtl() {
+        return snapshot.getCacheTtl();
+    }
+
+    /**
+     * Requests per second allowed for an endpoint group ("pet", "store", "user"); 0 means unlimited.
+     * throttle.&lt;group&gt;.rate overrides throttle.rate.
+     */
+    public double getThrottleRate(String group) {
+        return snapshot.getThrottleRate(group);
+    }
+
+    /**
+     * Requests an endpoint group may send back to back before the rate applies
+     */
+    public int getThrottleBurst(String group) {
+        return snapshot.getThrottleBurst(group);
+    }
+
+    /**
+     * Maximum requests in flight for an endpoint group; 0 means unlimited
+     */
+    public int getThrottleConcurrency(String group) {
+        return snapshot.getThrottleConcurrency(group);
+    }
+
+    /**
+     * Whether the concurrency limit adapts (AIMD) to 429/503 responses and slow requests
+     */
+    public boolean isThrottleAdaptive() {
+        return snapshot.isThrottleAdaptive();
+    }
+
+    /**
+     * Latency in milliseconds above which an adaptive limit backs off; 0 reacts to 429/503 only
+     */
+    public long getThrottleLatencyTarget() {
+        return snapshot.getThrottleLatencyTarget();
     }
 
+    /**
+     * Returns a property value from the highest layer that sets it
+     */
     public String getProperty(String key) {
-        return properties.getProperty(key);
+        return snapshot.get(key);
     }
 
     public String getProperty(String key, String defaultValue) {
-        return properties.getProperty(key, defaultValue);
+        return snapshot.get(key, defaultValue);
     }
 }
@@ -0,0 +1,407 @@
+package com.petstore.config;
+
+import com.petstore.logging.LogMode;
+
+import java.net.http.HttpClient;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Immutable view of the configuration at one point in time. Every typed value is parsed once when
+ * the snapshot is built, so reads are plain field loads and a malformed value fails at load time
+ * rather than on first use. See {@link ConfigManager} for what each property means.
+ */
+public final class ConfigSnapshot {
+    private final Map<String, String> values;
+
+    private final String profile;
+    private final String baseUrl;
+    private final int requestTimeout;
+    private final int responseTimeout;
+    private final int poolMaxTotal;
+    private final int poolMaxPerRoute;
+    private final long poolIdleTimeout;
+    private final long keepAlive;
+    private final HttpClient.Version httpVersion;
+    private final List<String> httpCompression;
+    private final String executionThreads;
+    private final int maxConcurrency;
+    private final int seedBatchSize;
+    private final int seedMaxAttempts;
+    private final long batchWindow;
+    private final int batchMaxSize;
+    private final boolean cleanupEnabled;
+    private final String cleanupScope;
+    private final Integer idNode;
+    private final Long idSeed;
+    private final boolean metricsEnabled;
+    private final String metricsExportFile;
+    private final String logLevel;
+    private final LogMode logMode;
+    private final int logSampleRate;
+    private final int logBufferSize;
+    private final long reloadInterval;
+    private final int retryMaxAttempts;
+    private final Set<String> retryMethods;
+    private final Set<Integer> retryStatuses;
+    private final long retryBackoffBase;
+    private final long retryBackoffMax;
+    private final double retryBudgetRatio;
+    private final int retryBudgetMax;
+    private final boolean cacheEnabled;
+    private final int cacheMaxEntries;
+    private final long cacheTtl;
+    private final Throttle throttle;
+    private final Map<String, Throttle> groupThrottles;
+    private final boolean throttleAdaptive;
+    private final long throttleLatencyTarget;
+
+    /**
+     * Rate and concurrency limits of one endpoint group, or the defaults for groups without their own
+     */
+    private record Throttle(double rate, int burst, int concurrency) {
+    }
+
+    ConfigSnapshot(Map<String, String> values) {
+        this.values = Map.copyOf(values);
+        profile = optional("config.profile");
+        baseUrl = get("base.url", "https://petstore.swagger.io/v2");
+        requestTimeout = getInt("request.timeout", 5000);
+        responseTimeout = getInt("response.timeout", 5000);
+        poolMaxTotal = getInt("http.pool.max.total", 50);
+        poolMaxPerRoute = getInt("http.pool.max.per.route", 20);
+        poolIdleTimeout = getLong("http.pool.idle.timeout", 30000);
+        keepAlive = getLong("http.keepalive", 30000);
+        httpVersion = parse("http.version", get("http.version", "HTTP_1_1").trim().toUpperCase(Locale.ROOT),
+                HttpClient.Version::valueOf);
+        httpCompression = "none".equalsIgnoreCase(get("http.compression", "").trim())
+                ? List.of()
+                : List.copyOf(list("http.compression", "gzip,deflate", ConfigSnapshot::contentCoding));
+        executionThreads = get("execution.threads", "virtual");
+        maxConcurrency = getInt("execution.max.concurrency", 20);
+        seedBatchSize = getInt("seed.batch.size", 100);
+        seedMaxAttempts = getInt("seed.max.attempts", 3);
+        batchWindow = getLong("batch.window", 10);
+        batchMaxSize = getInt("batch.max.size", 100);
+        cleanupEnabled = getBoolean("cleanup.enabled", true);
+        cleanupScope = get("cleanup.scope", "suite").trim().toLowerCase(Locale.ROOT);
+        if (!cleanupScope.equals("suite") && !cleanupScope.equals("class")) {
+            throw new IllegalArgumentException("Invalid value for cleanup.scope: '" + cleanupScope + "'");
+        }
+        idNode = optional("id.node") == null ? null : parse("id.node", optional("id.node"), Integer::valueOf);
+        idSeed = optional("id.seed") == null ? null : parse("id.seed", optional("id.seed"), Long::valueOf);
+        metricsEnabled = getBoolean("metrics.enabled", true);
+        metricsExportFile = get("metrics.export.file", "target/latency-metrics.json");
+        logLevel = get("log.level", "ON_FAILURE");
+        logMode = parse("log.level", logLevel, LogMode::parse);
+        logSampleRate = getInt("log.sample.rate", 100);
+        logBufferSize = getInt("log.buffer.size", 64);
+        reloadInterval = getLong("config.reload.interval", 0);
+        retryMaxAttempts = getInt("retry.max.attempts", 3);
+        retryMethods = Set.copyOf(list("retry.methods", "GET,PUT,DELETE", value -> value.toUpperCase(Locale.ROOT)));
+        retryStatuses = Set.copyOf(list("retry.statuses", "502,503,504", value -> parse("retry.statuses", value, Integer::valueOf)));
+        retryBackoffBase = getLong("retry.backoff.base", 100);
+        retryBackoffMax = getLong("retry.backoff.max", 2000);
+        retryBudgetRatio = getDouble("retry.budget.ratio", 0.1);
+        retryBudgetMax = getInt("retry.budget.max", 20);
+        cacheEnabled = getBoolean("cache.enabled", false);
+        cacheMaxEntries = getInt("cache.max.entries", 1000);
+        cacheTtl = getLong("cache.ttl", 30000);
+        throttle = throttle("throttle", new Throttle(0, 10, 0));
+        groupThrottles = groupThrottles();
+        throttleAdaptive = getBoolean("throttle.adaptive", false);
+        throttleLatencyTarget = getLong("throttle.latency.target", 0);
+        if (throttleLatencyTarget < 0) {
+            throw new IllegalArgumentException("Invalid value for throttle.latency.target: '" + throttleLatencyTarget
+                    + "' (must be 0 or more)");
+        }
+    }
+
+    /**
+     * Raw value of any property, or null when no layer sets it
+     */
+    public String get(String key) {
+        return values.get(key);
+    }
+
+    public String get(String key, String defaultValue) {
+        return values.getOrDefault(key, defaultValue);
+    }
+
+    /**
+     * All resolved properties, highest-precedence layer winning
+     */
+    public Map<String, String> values() {
+        return values;
+    }
+
+    /**
+     * Active profile name, or null when only config.properties is used
+     */
+    public String getProfile() {
+        return profile;
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    public int getRequestTimeout() {
+        return requestTimeout;
+    }
+
+    public int getResponseTimeout() {
+        return responseTimeout;
+    }
+
+    public int getPoolMaxTotal() {
+        return poolMaxTotal;
+    }
+
+    public int getPoolMaxPerRoute() {
+        return poolMaxPerRoute;
+    }
+
+    public long getPoolIdleTimeout() {
+        return poolIdleTimeout;
+    }
+
+    public long getKeepAlive() {
+        return keepAlive;
+    }
+
+    public HttpClient.Version getHttpVersion() {
+        return httpVersion;
+    }
+
+    public List<String> getHttpCompression() {
+        return httpCompression;
+    }
+
+    public String getExecutionThreads() {
+        return executionThreads;
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public int getSeedBatchSize() {
+        return seedBatchSize;
+    }
+
+    public int getSeedMaxAttempts() {
+        return seedMaxAttempts;
+    }
+
+    public long getBatchWindow() {
+        return batchWindow;
+    }
+
+    public int getBatchMaxSize() {
+        return batchMaxSize;
+    }
+
+    public boolean isCleanupEnabled() {
+        return cleanupEnabled;
+    }
+
+    public String getCleanupScope() {
+        return cleanupScope;
+    }
+
+    public Integer getIdNode() {
+        return idNode;
+    }
+
+    public Long getIdSeed() {
+        return idSeed;
+    }
+
+    public boolean isMetricsEnabled() {
+        return metricsEnabled;
+    }
+
+    public String getMetricsExportFile() {
+        return metricsExportFile;
+    }
+
+    public String getLogLevel() {
+        return logLevel;
+    }
+
+    public LogMode getLogMode() {
+        return logMode;
+    }
+
+    public int getLogSampleRate() {
+        return logSampleRate;
+    }
+
+    public int getLogBufferSize() {
+        return logBufferSize;
+    }
+
+    public long getReloadInterval() {
+        return reloadInterval;
+    }
+
+    public int getRetryMaxAttempts() {
+        return retryMaxAttempts;
+    }
+
+    public Set<String> getRetryMethods() {
+        return retryMethods;
+    }
+
+    public Set<Integer> getRetryStatuses() {
+        return retryStatuses;
+    }
+
+    public long getRetryBackoffBase() {
+        return retryBackoffBase;
+    }
+
+    public long getRetryBackoffMax() {
+        return retryBackoffMax;
+    }
+
+    public double getRetryBudgetRatio() {
+        return retryBudgetRatio;
+    }
+
+    public int getRetryBudgetMax() {
+        return retryBudgetMax;
+    }
+
+    public boolean isCacheEnabled() {
+        return cacheEnabled;
+    }
+
+    public int getCacheMaxEntries() {
+        return cacheMaxEntries;
+    }
+
+    public long getCacheTtl() {
+        return cacheTtl;
+    }
+
+    public double getThrottleRate(String group) {
+        return groupThrottles.getOrDefault(group, throttle).rate();
+    }
+
+    public int getThrottleBurst(String group) {
+        return groupThrottles.getOrDefault(group, throttle).burst();
+    }
+
+    public int getThrottleConcurrency(String group) {
+        return groupThrottles.getOrDefault(group, throttle).concurrency();
+    }
+
+    public boolean isThrottleAdaptive() {
+        return throttleAdaptive;
+    }
+
+    public long getThrottleLatencyTarget() {
+        return throttleLatencyTarget;
+    }
+
+    /**
+     * Reads and checks &lt;prefix&gt;.rate, .burst and .concurrency, falling back to the given values
+     */
+    private Throttle throttle(String prefix, Throttle defaults) {
+        double rate = getDouble(prefix + ".rate", defaults.rate());
+        int burst = getInt(prefix + ".burst", defaults.burst());
+        int concurrency = getInt(prefix + ".concurrency", defaults.concurrency());
+        if (!(rate >= 0) || Double.isInfinite(rate)) {
+            throw new IllegalArgumentException("Invalid value for " + prefix + ".rate: '" + rate + "' (must be 0 or more)");
+        }
+        if (burst < 1) {
+            throw new IllegalArgumentException("Invalid value for " + prefix + ".burst: '" + burst + "' (must be at least 1)");
+        }
+        if (concurrency < 0) {
+            throw new IllegalArgumentException("Invalid value for " + prefix + ".concurrency: '" + concurrency
+                    + "' (must be 0 or more)");
+        }
+        return new Throttle(rate, burst, concurrency);
+    }
+
+    /**
+     * Groups with their own throttle.&lt;group&gt;.rate, .burst or .concurrency, each layered over the defaults
+     */
+    private Map<String, Throttle> groupThrottles() {
+        Map<String, Throttle> groups = new HashMap<>();
+        for (String key : values.keySet()) {
+            String[] parts = key.split("\\.");
+            if (parts.length == 3 && parts[0].equals("throttle")
+                    && (parts[2].equals("rate") || parts[2].equals("burst") || parts[2].equals("concurrency"))) {
+                groups.computeIfAbsent(parts[1], group -> throttle("throttle." + group, throttle));
+            }
+        }
+        return Map.copyOf(groups);
+    }
+
+    private <T> List<T> list(String key, String defaultValue, Function<String, T> parser) {
+        List<T> items = new ArrayList<>();
+        for (String item : get(key, defaultValue).split(",")) {
+            if (!item.isBlank()) {
+                items.add(parser.apply(item.trim()));
+            }
+        }
+        return items;
+    }
+
+    private String optional(String key) {
+        String value = values.get(key);
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    /**
+     * Any integer property parsed on demand, for keys without a typed getter
+     */
+    public int getInt(String key, int defaultValue) {
+        String value = optional(key);
+        return value == null ? defaultValue : parse(key, value, Integer::parseInt);
+    }
+
+    public long getLong(String key, long defaultValue) {
+        String value = optional(key);
+        return value == null ? defaultValue : parse(key, value, Long::parseLong);
+    }
+
+    public double getDouble(String key, double defaultValue) {
+        String value = optional(key);
+        return value == null ? defaultValue : parse(key, value, Double::parseDouble);
+    }
+
+    public boolean getBoolean(String key, boolean defaultValue) {
+        String value = optional(key);
+        return value == null ? defaultValue : Boolean.parseBoolean(value);
+    }
+
+    /**
+     * Validates one http.compression entry; brotli is rejected because neither the JDK nor
+     * HttpClient 4 ships a decoder for it
+     */
+    private static String contentCoding(String value) {
+        String coding = value.toLowerCase(Locale.ROOT);
+        if (!coding.equals("gzip") && !coding.equals("deflate")) {
+            throw new IllegalArgumentException("Invalid value for http.compression: '" + value
+                    + "' (supported: gzip, deflate, none)");
+        }
+        return coding;
+    }
+
+    private static <T> T parse(String key, String value, Function<String, T> parser) {
+        try {
+            return parser.apply(value);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid value for " + key + ": '" + value + "'", e);
+        }
+    }
+}
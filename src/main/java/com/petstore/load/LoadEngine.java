@@ -0,0 +1,164 @@
+package com.petstore.load;
+
+import io.restassured.response.Response;
+import com.petstore.config.ConfigManager;
+import com.petstore.metrics.LatencyHistogram;
+import com.petstore.metrics.LatencySummary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives a {@link LoadScenario} through the existing API classes on virtual threads.
+ * <p>
+ * Every request is timed from the moment the schedule intended to send it, not from when a
+ * thread got round to sending it, so stalls in the service or in the generator show up in the
+ * percentiles instead of being hidden (coordinated omission). In the open model the schedule is
+ * the arrival rate; in the closed model it is the per-user pacing, or back-to-back without pacing.
+ */
+public class LoadEngine {
+    private static final Logger logger = LoggerFactory.getLogger(LoadEngine.class);
+
+    /**
+     * Run the scenario to completion and report the results
+     */
+    public LoadReport run(LoadScenario scenario) {
+        Map<String, OperationRecorder> recorders = new LinkedHashMap<>();
+        scenario.getOperations().forEach(operation -> recorders.put(operation.name(), new OperationRecorder()));
+
+        int maxInFlight = scenario.getMaxInFlight() > 0
+                ? scenario.getMaxInFlight()
+                : ConfigManager.getInstance().getPoolMaxPerRoute();
+        Semaphore inFlight = new Semaphore(maxInFlight);
+
+        logger.info("Starting load scenario '{}': model={}, rate={}, users={}, rampUp={}, duration={}, maxInFlight={}",
+                scenario.getName(), scenario.getModel(), scenario.getArrivalRate(), scenario.getVirtualUsers(),
+                scenario.getRampUp(), scenario.getDuration(), maxInFlight);
+
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            if (scenario.getModel() == LoadScenario.Model.OPEN) {
+                runOpen(scenario, executor, inFlight, recorders, start);
+            } else {
+                runClosed(scenario, executor, inFlight, recorders, start);
+            }
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        List<LatencySummary> results = new ArrayList<>();
+        LatencyHistogram all = new LatencyHistogram();
+        long allErrors = 0;
+        for (Map.Entry<String, OperationRecorder> entry : recorders.entrySet()) {
+            OperationRecorder recorder = entry.getValue();
+            results.add(LatencySummary.of(entry.getKey(), recorder.latencies, recorder.errors.sum(), elapsed));
+            all.add(recorder.latencies);
+            allErrors += recorder.errors.sum();
+        }
+        LoadReport report = new LoadReport(scenario.getName(), elapsed, results,
+                LatencySummary.of("TOTAL", all, allErrors, elapsed));
+        logger.info("Finished load scenario '{}'\n{}", scenario.getName(), report.format());
+        return report;
+    }
+
+    private void runOpen(LoadScenario scenario, ExecutorService executor, Semaphore inFlight,
+                         Map<String, OperationRecorder> recorders, long start) {
+        long end = start + scenario.getDuration().toNanos();
+        long rampUp = scenario.getRampUp().toNanos();
+        double rate = scenario.getArrivalRate();
+
+        for (long arrival = 0; ; arrival++) {
+            long intendedStart = start + arrivalOffset(arrival, rate, rampUp);
+            if (intendedStart >= end) {
+                break;
+            }
+            parkUntil(intendedStart);
+            LoadScenario.Operation operation = scenario.nextOperation();
+            executor.submit(() -> execute(operation, intendedStart, inFlight, recorders.get(operation.name())));
+        }
+    }
+
+    /**
+     * Offset in nanos of the n-th arrival when the rate climbs linearly from zero over the ramp-up
+     * and then holds steady
+     */
+    static long arrivalOffset(long arrival, double ratePerSecond, long rampUpNanos) {
+        double rampUpSeconds = rampUpNanos / 1e9;
+        double arrivalsDuringRampUp = ratePerSecond * rampUpSeconds / 2;
+        double seconds = arrival < arrivalsDuringRampUp
+                ? Math.sqrt(2 * rampUpSeconds * arrival / ratePerSecond)
+                : rampUpSeconds / 2 + arrival / ratePerSecond;
+        return (long) (seconds * 1e9);
+    }
+
+    private void runClosed(LoadScenario scenario, ExecutorService executor, Semaphore inFlight,
+                           Map<String, OperationRecorder> recorders, long start) {
+        long end = start + scenario.getDuration().toNanos();
+        long rampUp = scenario.getRampUp().toNanos();
+        long pacing = scenario.getPacing().toNanos();
+        int users = scenario.getVirtualUsers();
+
+        for (int user = 0; user < users; user++) {
+            long userStart = start + rampUp * user / users;
+            executor.submit(() -> {
+                long intendedStart = userStart;
+                parkUntil(intendedStart);
+                while (System.nanoTime() < end) {
+                    long scheduled = pacing > 0 ? intendedStart : System.nanoTime();
+                    LoadScenario.Operation operation = scenario.nextOperation();
+                    execute(operation, scheduled, inFlight, recorders.get(operation.name()));
+                    if (pacing > 0) {
+                        intendedStart += pacing;
+                        parkUntil(intendedStart);
+                    }
+                }
+            });
+        }
+    }
+
+    private void execute(LoadScenario.Operation operation, long intendedStart, Semaphore inFlight,
+                         OperationRecorder recorder) {
+        boolean success = false;
+        inFlight.acquireUninterruptibly();
+        try {
+            Response response = operation.call().get();
+            success = response.statusCode() < 400;
+        } catch (RuntimeException e) {
+            logger.debug("Operation {} failed", operation.name(), e);
+        } finally {
+            inFlight.release();
+        }
+        recorder.record((System.nanoTime() - intendedStart) / 1000, success);
+    }
+
+    private static void parkUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    /**
+     * Lock-free latency and error accounting for one operation
+     */
+    private static class OperationRecorder {
+        private final LatencyHistogram latencies = new LatencyHistogram();
+        private final LongAdder errors = new LongAdder();
+
+        void record(long latencyMicros, boolean success) {
+            latencies.recordValue(latencyMicros);
+            if (!success) {
+                errors.increment();
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.petstore.load;
+
+import com.petstore.metrics.LatencySummary;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Throughput and latency results of a load run. Latencies are measured from each request's
+ * intended start time, so they include any queueing the load generator itself caused.
+ */
+public class LoadReport {
+
+    private final String scenario;
+    private final Duration elapsed;
+    private final List<LatencySummary> operations;
+    private final LatencySummary total;
+
+    LoadReport(String scenario, Duration elapsed, List<LatencySummary> operations, LatencySummary total) {
+        this.scenario = scenario;
+        this.elapsed = elapsed;
+        this.operations = Collections.unmodifiableList(new ArrayList<>(operations));
+        this.total = total;
+    }
+
+    public String getScenario() {
+        return scenario;
+    }
+
+    public Duration getElapsed() {
+        return elapsed;
+    }
+
+    public List<LatencySummary> getOperations() {
+        return operations;
+    }
+
+    public LatencySummary getTotal() {
+        return total;
+    }
+
+    /**
+     * Plain-text table of the results
+     */
+    public String format() {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("Scenario '%s' ran for %.1f s%n", scenario, elapsed.toMillis() / 1000.0));
+        out.append(String.format("%-20s %9s %8s %10s %9s %9s %9s %9s %9s%n",
+                "operation", "count", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+        for (LatencySummary result : operations) {
+            appendRow(out, result);
+        }
+        appendRow(out, total);
+        return out.toString();
+    }
+
+    private static void appendRow(StringBuilder out, LatencySummary result) {
+        out.append(String.format("%-20s %9d %8d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                result.name(), result.count(), result.errors(), result.throughput(),
+                result.p50(), result.p90(), result.p99(), result.p999(), result.max()));
+    }
+
+    @Override
+    public String toString() {
+        return format();
+    }
+}
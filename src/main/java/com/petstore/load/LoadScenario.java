@@ -0,0 +1,201 @@
+package com.petstore.load;
+
+import io.restassured.response.Response;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Declarative load scenario: a weighted mix of API operations plus the workload model,
+ * ramp-up and duration to drive it with
+ */
+public class LoadScenario {
+
+    /**
+     * Open model issues requests at a fixed arrival rate regardless of response times;
+     * closed model runs a fixed number of virtual users back to back
+     */
+    public enum Model {
+        OPEN, CLOSED
+    }
+
+    /**
+     * Named operation with its relative weight in the mix
+     */
+    public record Operation(String name, int weight, Supplier<Response> call) {
+    }
+
+    private final String name;
+    private final List<Operation> operations;
+    private final int[] cumulativeWeights;
+    private final Model model;
+    private final double arrivalRate;
+    private final int virtualUsers;
+    private final Duration pacing;
+    private final Duration rampUp;
+    private final Duration duration;
+    private final int maxInFlight;
+
+    private LoadScenario(Builder builder) {
+        if (builder.operations.isEmpty()) {
+            throw new IllegalArgumentException("Scenario '" + builder.name + "' has no operations");
+        }
+        if (builder.model == null) {
+            throw new IllegalArgumentException("Scenario '" + builder.name + "' needs an open or closed model");
+        }
+        this.name = builder.name;
+        this.operations = Collections.unmodifiableList(new ArrayList<>(builder.operations));
+        this.cumulativeWeights = new int[operations.size()];
+        int total = 0;
+        for (int i = 0; i < operations.size(); i++) {
+            total += operations.get(i).weight();
+            cumulativeWeights[i] = total;
+        }
+        this.model = builder.model;
+        this.arrivalRate = builder.arrivalRate;
+        this.virtualUsers = builder.virtualUsers;
+        this.pacing = builder.pacing;
+        this.rampUp = builder.rampUp;
+        this.duration = builder.duration;
+        this.maxInFlight = builder.maxInFlight;
+    }
+
+    public static Builder builder(String name) {
+        return new Builder(name);
+    }
+
+    /**
+     * Pick an operation at random according to the weights
+     */
+    public Operation nextOperation() {
+        int roll = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (roll < cumulativeWeights[i]) {
+                return operations.get(i);
+            }
+        }
+        return operations.get(operations.size() - 1);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<Operation> getOperations() {
+        return operations;
+    }
+
+    public Model getModel() {
+        return model;
+    }
+
+    public double getArrivalRate() {
+        return arrivalRate;
+    }
+
+    public int getVirtualUsers() {
+        return virtualUsers;
+    }
+
+    public Duration getPacing() {
+        return pacing;
+    }
+
+    public Duration getRampUp() {
+        return rampUp;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    /**
+     * Builder for load scenarios
+     */
+    public static class Builder {
+        private final String name;
+        private final List<Operation> operations = new ArrayList<>();
+        private Model model;
+        private double arrivalRate;
+        private int virtualUsers;
+        private Duration pacing = Duration.ZERO;
+        private Duration rampUp = Duration.ZERO;
+        private Duration duration = Duration.ofSeconds(60);
+        private int maxInFlight;
+
+        private Builder(String name) {
+            this.name = name;
+        }
+
+        public Builder operation(String operationName, int weight, Supplier<Response> call) {
+            if (weight <= 0) {
+                throw new IllegalArgumentException("Weight of '" + operationName + "' must be positive but was " + weight);
+            }
+            operations.add(new Operation(operationName, weight, call));
+            return this;
+        }
+
+        /**
+         * Constant arrival rate in requests per second, reached linearly over the ramp-up
+         */
+        public Builder openModel(double requestsPerSecond) {
+            if (requestsPerSecond <= 0) {
+                throw new IllegalArgumentException("Arrival rate must be positive but was " + requestsPerSecond);
+            }
+            this.model = Model.OPEN;
+            this.arrivalRate = requestsPerSecond;
+            return this;
+        }
+
+        /**
+         * Fixed number of virtual users, started evenly over the ramp-up
+         */
+        public Builder closedModel(int users) {
+            if (users <= 0) {
+                throw new IllegalArgumentException("Virtual users must be positive but was " + users);
+            }
+            this.model = Model.CLOSED;
+            this.virtualUsers = users;
+            return this;
+        }
+
+        /**
+         * Closed model only: each virtual user aims to start one request per interval;
+         * responses slower than the interval are corrected for coordinated omission
+         */
+        public Builder pacing(Duration interval) {
+            this.pacing = interval;
+            return this;
+        }
+
+        public Builder rampUp(Duration rampUp) {
+            this.rampUp = rampUp;
+            return this;
+        }
+
+        public Builder duration(Duration duration) {
+            this.duration = duration;
+            return this;
+        }
+
+        /**
+         * Maximum requests outstanding at once; 0 uses http.pool.max.per.route
+         */
+        public Builder maxInFlight(int maxInFlight) {
+            this.maxInFlight = maxInFlight;
+            return this;
+        }
+
+        public LoadScenario build() {
+            return new LoadScenario(this);
+        }
+    }
+}
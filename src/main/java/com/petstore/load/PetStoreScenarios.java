@@ -0,0 +1,59 @@
+package com.petstore.load;
+
+import com.petstore.api.PetApi;
+import com.petstore.api.StoreApi;
+import com.petstore.api.UserApi;
+import com.petstore.models.Order;
+import com.petstore.models.Pet;
+import com.petstore.models.User;
+import com.petstore.utils.TestDataBuilder;
+
+import java.time.Duration;
+
+/**
+ * Ready-made load scenarios for the PetStore API.
+ * Run from the command line with:
+ * mvn test-compile exec:java -Dexec.mainClass=com.petstore.load.PetStoreScenarios -Dexec.classpathScope=test
+ * and tune with -Dload.model=open|closed, -Dload.rate, -Dload.users, -Dload.duration, -Dload.rampup (seconds).
+ */
+public class PetStoreScenarios {
+
+    /**
+     * Weighted mix of addPet, getPetById, placeOrder, getInventory and loginUser.
+     * Seeds one pet and one user first so the lookups and logins hit real data.
+     */
+    public static LoadScenario.Builder mixed(PetApi petApi, StoreApi storeApi, UserApi userApi) {
+        Long seededPetId = TestDataBuilder.generatePetId();
+        petApi.addPet(new Pet(seededPetId, TestDataBuilder.generatePetName(), "available"));
+
+        String username = TestDataBuilder.generateUsername();
+        String password = TestDataBuilder.generatePassword();
+        userApi.createUser(new User(username, TestDataBuilder.generateEmail(), password));
+
+        return LoadScenario.builder("petstore-mixed")
+                .operation("addPet", 20, () -> petApi.addPet(
+                        new Pet(TestDataBuilder.generatePetId(), TestDataBuilder.generatePetName(), "available")))
+                .operation("getPetById", 35, () -> petApi.getPetById(seededPetId))
+                .operation("placeOrder", 15, () -> {
+                    Order order = new Order(seededPetId, TestDataBuilder.generateQuantity());
+                    order.setId(TestDataBuilder.generateOrderId());
+                    order.setStatus("placed");
+                    return storeApi.placeOrder(order);
+                })
+                .operation("getInventory", 20, storeApi::getInventory)
+                .operation("loginUser", 10, () -> userApi.loginUser(username, password));
+    }
+
+    public static void main(String[] args) {
+        LoadScenario.Builder builder = mixed(new PetApi(), new StoreApi(), new UserApi())
+                .rampUp(Duration.ofSeconds(Long.getLong("load.rampup", 5)))
+                .duration(Duration.ofSeconds(Long.getLong("load.duration", 30)));
+        if ("closed".equalsIgnoreCase(System.getProperty("load.model", "open"))) {
+            builder.closedModel(Integer.getInteger("load.users", 10));
+        } else {
+            builder.openModel(Double.parseDouble(System.getProperty("load.rate", "50")));
+        }
+        System.out.println(new LoadEngine().run(builder.build()).format());
+        System.exit(0);
+    }
+}
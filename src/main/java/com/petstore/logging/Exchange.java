@@ -0,0 +1,32 @@
+package com.petstore.logging;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * One captured request/response pair. Holds references only; formatting is deferred
+ * until the exchange is actually written, on the log writer thread.
+ */
+public record Exchange(String method, String uri, Object requestHeaders, Object requestBody,
+                       String statusLine, Object responseHeaders, byte[] responseBody) {
+
+    /**
+     * Render the exchange in the same layout RestAssured's request/response logging uses
+     */
+    public String format() {
+        StringBuilder out = new StringBuilder(256);
+        out.append("Request method:\t").append(method).append('\n');
+        out.append("Request URI:\t").append(uri).append('\n');
+        out.append("Headers:\t\t").append(requestHeaders).append('\n');
+        out.append("Body:\n").append(requestBody == null ? "<none>" : bodyText(requestBody)).append("\n\n");
+        out.append(statusLine).append('\n');
+        out.append(responseHeaders).append('\n');
+        out.append(responseBody == null || responseBody.length == 0
+                ? "<no body>"
+                : new String(responseBody, StandardCharsets.UTF_8));
+        return out.toString();
+    }
+
+    private static String bodyText(Object body) {
+        return body instanceof byte[] bytes ? new String(bytes, StandardCharsets.UTF_8) : String.valueOf(body);
+    }
+}
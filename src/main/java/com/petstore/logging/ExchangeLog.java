@@ -0,0 +1,221 @@
+package com.petstore.logging;
+
+import com.petstore.config.ConfigManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Request/response log kept off the request path. Capturing an exchange only stores references;
+ * exchanges that should be written are handed to a single background writer thread, which formats
+ * and logs them. In ON_FAILURE mode the most recent log.buffer.size exchanges are kept in a
+ * lock-free ring and written only when {@link #dumpSince(long, String)} is called for a failed test.
+ * Each exchange is tagged with the thread that sent it (or on whose behalf it was sent, see
+ * {@link #onBehalfOf}), so a dump holds only the failed test's exchanges even when tests run in
+ * parallel. A configuration reload applies new log.level, log.sample.rate and log.buffer.size
+ * values in place.
+ */
+public class ExchangeLog {
+    private static final Logger logger = LoggerFactory.getLogger(ExchangeLog.class);
+    private static final int QUEUE_CAPACITY = 4096;
+    private static volatile ExchangeLog instance;
+
+    private volatile Settings settings;
+    private boolean writerStarted;
+    private final AtomicLong sequence = new AtomicLong();
+    private final ThreadLocal<Long> actingFor = new ThreadLocal<>();
+    private final BlockingQueue<Object> pending = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final LongAdder dropped = new LongAdder();
+
+    private record Entry(long sequence, long owner, Exchange exchange) {
+    }
+
+    /**
+     * Read once per call, so a reload never mixes the mode of one configuration with the ring of another
+     */
+    private record Settings(LogMode mode, int sampleRate, AtomicReferenceArray<Entry> recent) {
+    }
+
+    ExchangeLog(LogMode mode, int sampleRate, int bufferSize) {
+        configure(mode, sampleRate, bufferSize);
+    }
+
+    public static ExchangeLog getInstance() {
+        ExchangeLog log = instance;
+        if (log == null) {
+            synchronized (ExchangeLog.class) {
+                log = instance;
+                if (log == null) {
+                    ConfigManager config = ConfigManager.getInstance();
+                    log = new ExchangeLog(config.getLogMode(),
+                            config.getLogSampleRate(), config.getLogBufferSize());
+                    ExchangeLog configured = log;
+                    config.addReloadListener(snapshot -> configured.configure(config.getLogMode(),
+                            config.getLogSampleRate(), config.getLogBufferSize()));
+                    instance = log;
+                }
+            }
+        }
+        return log;
+    }
+
+    /**
+     * Applies new settings; the ring of recent exchanges is kept unless its size changes
+     */
+    synchronized void configure(LogMode mode, int sampleRate, int bufferSize) {
+        Settings current = settings;
+        int size = Math.max(1, bufferSize);
+        int rate = Math.max(1, sampleRate);
+        if (current != null && current.mode() == mode && current.sampleRate() == rate
+                && current.recent().length() == size) {
+            return;
+        }
+        AtomicReferenceArray<Entry> recent = current != null && current.recent().length() == size
+                ? current.recent() : new AtomicReferenceArray<>(size);
+        settings = new Settings(mode, rate, recent);
+        if (mode != LogMode.OFF && !writerStarted) {
+            writerStarted = true;
+            Thread.ofPlatform().daemon().name("exchange-log-writer").start(this::writeLoop);
+            Runtime.getRuntime().addShutdownHook(new Thread(this::drain, "exchange-log-drain"));
+        }
+        if (current != null) {
+            logger.info("Exchange log reconfigured: mode={}, sampleRate={}, bufferSize={}", mode, rate, size);
+        }
+    }
+
+    public LogMode getMode() {
+        return settings.mode();
+    }
+
+    public boolean isEnabled() {
+        return settings.mode() != LogMode.OFF;
+    }
+
+    /**
+     * Thread id exchanges sent from the calling thread are tagged with
+     */
+    public long owner() {
+        Long owner = actingFor.get();
+        return owner != null ? owner : Thread.currentThread().threadId();
+    }
+
+    /**
+     * Runs an action whose exchanges belong to another thread, e.g. an async retry sent from a timer
+     * thread on behalf of the test that started the request
+     */
+    public <T> T onBehalfOf(long owner, Supplier<T> action) {
+        Long previous = actingFor.get();
+        actingFor.set(owner);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                actingFor.remove();
+            } else {
+                actingFor.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Capture a completed exchange sent by the calling thread according to the log mode
+     */
+    public void capture(Exchange exchange) {
+        capture(owner(), exchange);
+    }
+
+    /**
+     * Capture a completed exchange of the given {@link #owner()}, for exchanges that complete on another thread
+     */
+    public void capture(long owner, Exchange exchange) {
+        Settings current = settings;
+        switch (current.mode()) {
+            case OFF -> {
+            }
+            case ON_FAILURE -> {
+                long seq = sequence.getAndIncrement();
+                AtomicReferenceArray<Entry> recent = current.recent();
+                recent.set((int) (seq % recent.length()), new Entry(seq, owner, exchange));
+            }
+            case SAMPLED -> {
+                if (sequence.getAndIncrement() % current.sampleRate() == 0) {
+                    enqueue(exchange);
+                }
+            }
+            case FULL -> enqueue(exchange);
+        }
+    }
+
+    /**
+     * Position to pass to {@link #dumpSince(long, String)}, typically taken when a test starts
+     */
+    public long mark() {
+        return sequence.get();
+    }
+
+    /**
+     * Write the buffered exchanges the calling thread captured since the mark; only has an effect
+     * in ON_FAILURE mode. The ring is shared, so with many parallel tests log.buffer.size bounds how
+     * far back a dump reaches.
+     *
+     * @return the number of exchanges written
+     */
+    public int dumpSince(long mark, String reason) {
+        Settings current = settings;
+        if (current.mode() != LogMode.ON_FAILURE) {
+            return 0;
+        }
+        long owner = owner();
+        AtomicReferenceArray<Entry> recent = current.recent();
+        long end = sequence.get();
+        List<Exchange> exchanges = new ArrayList<>();
+        for (long seq = Math.max(mark, end - recent.length()); seq < end; seq++) {
+            Entry entry = recent.get((int) (seq % recent.length()));
+            if (entry != null && entry.sequence() == seq && entry.owner() == owner) {
+                exchanges.add(entry.exchange());
+            }
+        }
+        enqueue("Last " + exchanges.size() + " exchange(s) before failure of " + reason + ":");
+        exchanges.forEach(this::enqueue);
+        return exchanges.size();
+    }
+
+    private void enqueue(Object item) {
+        if (!pending.offer(item)) {
+            dropped.increment();
+        }
+    }
+
+    private void writeLoop() {
+        try {
+            while (true) {
+                write(pending.take());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void drain() {
+        Object item;
+        while ((item = pending.poll()) != null) {
+            write(item);
+        }
+    }
+
+    private void write(Object item) {
+        long lost = dropped.sumThenReset();
+        if (lost > 0) {
+            logger.warn("Dropped {} exchange log entries because the writer fell behind", lost);
+        }
+        logger.info("{}", item instanceof Exchange exchange ? exchange.format() : item);
+    }
+}
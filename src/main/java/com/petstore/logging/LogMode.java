@@ -0,0 +1,35 @@
+package com.petstore.logging;
+
+import java.util.Locale;
+
+/**
+ * How request/response exchanges are logged, selected with the log.level property
+ */
+public enum LogMode {
+    /** Nothing is captured or logged */
+    OFF,
+    /** Recent exchanges are buffered and only written when a test fails */
+    ON_FAILURE,
+    /** One in every log.sample.rate exchanges is written */
+    SAMPLED,
+    /** Every exchange is written */
+    FULL;
+
+    /**
+     * Parse a log.level value; unset or blank means ON_FAILURE, the default. Besides the mode
+     * names, the SLF4J level names are accepted for existing configs: ERROR and WARN mean
+     * ON_FAILURE, INFO, DEBUG and TRACE mean FULL.
+     */
+    public static LogMode parse(String level) {
+        if (level == null || level.isBlank()) {
+            return ON_FAILURE;
+        }
+        return switch (level.trim().toUpperCase(Locale.ROOT)) {
+            case "OFF", "NONE" -> OFF;
+            case "ON_FAILURE", "FAILURE", "ERROR", "WARN" -> ON_FAILURE;
+            case "SAMPLED", "SAMPLE" -> SAMPLED;
+            case "FULL", "ALL", "INFO", "DEBUG", "TRACE" -> FULL;
+            default -> throw new IllegalArgumentException("Unknown log.level: " + level);
+        };
+    }
+}
@@ -0,0 +1,17 @@
+package com.petstore.metrics;
+
+/**
+ * Anything that holds recorded request latencies per series key, e.g. "GET /pet/{id}"
+ */
+public interface LatencySource {
+
+    /**
+     * Copy of the latency histogram (microseconds) for a series, or an empty one if nothing was recorded
+     */
+    LatencyHistogram getHistogram(String key);
+
+    /**
+     * Summary of a single series, or null if nothing was recorded for it
+     */
+    LatencySummary getSummary(String key);
+}
@@ -0,0 +1,28 @@
+package com.petstore.metrics;
+
+import java.time.Duration;
+
+/**
+ * Point-in-time summary of a latency histogram; latencies in milliseconds
+ */
+public record LatencySummary(String name, long count, long errors, double throughput,
+                             double p50, double p90, double p99, double p999, double max) {
+
+    /**
+     * Summarize a histogram of microsecond samples taken over the given window
+     */
+    public static LatencySummary of(String name, LatencyHistogram latenciesMicros, long errors, Duration window) {
+        double seconds = Math.max(window.toNanos() / 1e9, 1e-9);
+        long count = latenciesMicros.getTotalCount();
+        return new LatencySummary(name, count, errors, count / seconds,
+                latenciesMicros.getValueAtPercentile(50) / 1000.0,
+                latenciesMicros.getValueAtPercentile(90) / 1000.0,
+                latenciesMicros.getValueAtPercentile(99) / 1000.0,
+                latenciesMicros.getValueAtPercentile(99.9) / 1000.0,
+                latenciesMicros.getMaxValue() / 1000.0);
+    }
+
+    public double errorRate() {
+        return count == 0 ? 0 : (double) errors / count;
+    }
+}
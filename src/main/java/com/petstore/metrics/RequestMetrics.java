@@ -0,0 +1,302 @@
+package com.petstore.metrics;
+
+import com.petstore.cache.CacheStats;
+import com.petstore.cache.ResponseCache;
+import com.petstore.config.ConfigManager;
+import com.petstore.utils.JsonCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide latency registry for every request sent through ApiClient.
+ * Samples are kept per method and endpoint template, e.g. "GET /pet/{id}"; path segments
+ * containing digits (ids, generated usernames) are folded into "{id}" and query strings are
+ * dropped so the number of series stays bounded. Recording is lock-free.
+ * A {@link Scope} additionally collects the requests one thread sends while it is open, e.g. during
+ * one test, so tests running in parallel do not see each other's samples.
+ */
+public class RequestMetrics implements LatencySource {
+    private static final Logger logger = LoggerFactory.getLogger(RequestMetrics.class);
+    private static final RequestMetrics instance = new RequestMetrics();
+
+    private final Map<String, EndpointRecorder> recorders = new ConcurrentHashMap<>();
+    private final ThreadLocal<Scope> currentScope = new ThreadLocal<>();
+    private volatile boolean enabled;
+    private boolean configuredEnabled;
+
+    private RequestMetrics() {
+        ConfigManager config = ConfigManager.getInstance();
+        configuredEnabled = config.isMetricsEnabled();
+        enabled = configuredEnabled;
+        config.addReloadListener(snapshot -> onReload(config.isMetricsEnabled()));
+    }
+
+    public static RequestMetrics getInstance() {
+        return instance;
+    }
+
+    /**
+     * Record one completed request sent by the calling thread
+     */
+    public void record(String method, String endpoint, long startNanos, long endNanos, boolean success) {
+        record(currentScope.get(), method, endpoint, startNanos, endNanos, success);
+    }
+
+    /**
+     * Record one completed request on behalf of the thread that opened the given scope, for
+     * requests that complete elsewhere (e.g. async ones); pass the {@link #currentScope()} taken
+     * when the request was started
+     */
+    public void record(Scope origin, String method, String endpoint, long startNanos, long endNanos, boolean success) {
+        if (!enabled) {
+            return;
+        }
+        String key = key(method, endpoint);
+        record(recorders, key, startNanos, endNanos, success);
+        for (Scope scope = origin; scope != null; scope = scope.parent) {
+            if (scope.open) {
+                record(scope.recorders, key, startNanos, endNanos, success);
+            }
+        }
+    }
+
+    private static void record(Map<String, EndpointRecorder> recorders, String key,
+                               long startNanos, long endNanos, boolean success) {
+        recorders.computeIfAbsent(key, k -> new EndpointRecorder()).record(startNanos, endNanos, success);
+    }
+
+    /**
+     * Start collecting a separate set of series for the requests the calling thread sends until the
+     * scope is closed; scopes nest, and a request is recorded in every open scope of its thread
+     */
+    public Scope openScope() {
+        Scope scope = new Scope(this, currentScope());
+        currentScope.set(scope);
+        return scope;
+    }
+
+    /**
+     * Innermost open scope of the calling thread, or null
+     */
+    public Scope currentScope() {
+        Scope scope = currentScope.get();
+        while (scope != null && !scope.open) {
+            scope = scope.parent;
+        }
+        return scope;
+    }
+
+    /**
+     * Series key for a method and a concrete endpoint, e.g. ("GET", "/pet/42") gives "GET /pet/{id}"
+     */
+    public static String key(String method, String endpoint) {
+        int query = endpoint.indexOf('?');
+        String path = query >= 0 ? endpoint.substring(0, query) : endpoint;
+        StringBuilder template = new StringBuilder(method.length() + path.length() + 1).append(method).append(' ');
+        int segmentStart = 0;
+        while (segmentStart < path.length()) {
+            int slash = path.indexOf('/', segmentStart + 1);
+            int segmentEnd = slash < 0 ? path.length() : slash;
+            String segment = path.substring(segmentStart, segmentEnd);
+            template.append(segment.chars().anyMatch(Character::isDigit) ? "/{id}" : segment);
+            segmentStart = segmentEnd;
+        }
+        return template.toString();
+    }
+
+    @Override
+    public LatencyHistogram getHistogram(String key) {
+        return copyHistogram(recorders, key);
+    }
+
+    @Override
+    public LatencySummary getSummary(String key) {
+        return summarize(recorders, key);
+    }
+
+    /**
+     * Summaries of all series, sorted by key
+     */
+    public List<LatencySummary> snapshot() {
+        return summarizeAll(recorders);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Overrides metrics.enabled until a reload changes that setting
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    private synchronized void onReload(boolean configured) {
+        if (configured != configuredEnabled) {
+            configuredEnabled = configured;
+            enabled = configured;
+        }
+    }
+
+    public void reset() {
+        recorders.clear();
+    }
+
+    /**
+     * Write all series summaries as JSON so runs can be compared between builds, with the
+     * response cache counters when the cache is enabled
+     */
+    public void exportJson(Path file) {
+        Map<String, Object> export = new LinkedHashMap<>();
+        export.put("generatedAt", Instant.now().toString());
+        export.put("latencyUnit", "ms");
+        export.put("endpoints", snapshot());
+        ResponseCache cache = ResponseCache.getInstance();
+        if (cache.isEnabled()) {
+            export.put("cache", cacheSummary(cache.stats()));
+        }
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            JsonCodec.mapper().writerWithDefaultPrettyPrinter().writeValue(file.toFile(), export);
+            logger.info("Exported request latency metrics to: {}", file.toAbsolutePath());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to export request metrics to " + file, e);
+        }
+    }
+
+    private static Map<String, Object> cacheSummary(CacheStats stats) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("hits", stats.hits());
+        summary.put("misses", stats.misses());
+        summary.put("revalidations", stats.revalidations());
+        summary.put("evictions", stats.evictions());
+        summary.put("invalidations", stats.invalidations());
+        summary.put("size", stats.size());
+        summary.put("hitRate", stats.hitRate());
+        return summary;
+    }
+
+    /**
+     * Plain-text table of all series
+     */
+    public String format() {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("%-36s %9s %8s %10s %9s %9s %9s %9s %9s%n",
+                "endpoint", "count", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+        for (LatencySummary summary : snapshot()) {
+            out.append(String.format("%-36s %9d %8d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    summary.name(), summary.count(), summary.errors(), summary.throughput(),
+                    summary.p50(), summary.p90(), summary.p99(), summary.p999(), summary.max()));
+        }
+        return out.toString();
+    }
+
+    private static LatencyHistogram copyHistogram(Map<String, EndpointRecorder> recorders, String key) {
+        EndpointRecorder recorder = recorders.get(key);
+        return recorder == null ? new LatencyHistogram() : recorder.latencies.copy();
+    }
+
+    private static LatencySummary summarize(Map<String, EndpointRecorder> recorders, String key) {
+        EndpointRecorder recorder = recorders.get(key);
+        return recorder == null ? null : recorder.summarize(key);
+    }
+
+    private static List<LatencySummary> summarizeAll(Map<String, EndpointRecorder> recorders) {
+        List<LatencySummary> summaries = new ArrayList<>();
+        recorders.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> summaries.add(entry.getValue().summarize(entry.getKey())));
+        return summaries;
+    }
+
+    /**
+     * Series recorded for one thread while the scope was open; closing it stops further recording
+     * but keeps the samples
+     */
+    public static class Scope implements LatencySource, AutoCloseable {
+        private final RequestMetrics owner;
+        private final Scope parent;
+        private final Thread thread = Thread.currentThread();
+        private final Map<String, EndpointRecorder> recorders = new ConcurrentHashMap<>();
+        private volatile boolean open = true;
+
+        private Scope(RequestMetrics owner, Scope parent) {
+            this.owner = owner;
+            this.parent = parent;
+        }
+
+        @Override
+        public LatencyHistogram getHistogram(String key) {
+            return copyHistogram(recorders, key);
+        }
+
+        @Override
+        public LatencySummary getSummary(String key) {
+            return summarize(recorders, key);
+        }
+
+        public List<LatencySummary> snapshot() {
+            return summarizeAll(recorders);
+        }
+
+        @Override
+        public void close() {
+            open = false;
+            // The thread-local can only be unwound on the owning thread; elsewhere the closed
+            // scope is skipped and dropped by the next lookup there
+            if (Thread.currentThread() == thread) {
+                Scope current = owner.currentScope();
+                if (current == null) {
+                    owner.currentScope.remove();
+                } else {
+                    owner.currentScope.set(current);
+                }
+            }
+        }
+    }
+
+    /**
+     * Latencies, errors and the active time window of one series
+     */
+    private static class EndpointRecorder {
+        private final LatencyHistogram latencies = new LatencyHistogram();
+        private final LongAdder errors = new LongAdder();
+        private final AtomicLong firstStart = new AtomicLong(Long.MAX_VALUE);
+        private final AtomicLong lastEnd = new AtomicLong(Long.MIN_VALUE);
+
+        void record(long startNanos, long endNanos, boolean success) {
+            latencies.recordValue(Math.max(0, endNanos - startNanos) / 1000);
+            if (!success) {
+                errors.increment();
+            }
+            if (startNanos < firstStart.get()) {
+                firstStart.accumulateAndGet(startNanos, Math::min);
+            }
+            if (endNanos > lastEnd.get()) {
+                lastEnd.accumulateAndGet(endNanos, Math::max);
+            }
+        }
+
+        LatencySummary summarize(String key) {
+            Duration window = Duration.ofNanos(Math.max(0, lastEnd.get() - firstStart.get()));
+            return LatencySummary.of(key, latencies, errors.sum(), window);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.petstore.retry;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caps retries relative to traffic: every request earns a fraction of a retry and every retry
+ * spends a whole one, so when a backend is failing across the board retries stop instead of
+ * multiplying the load. Lock-free; the balance is kept in thousandths of a retry.
+ */
+public class RetryBudget {
+    private static final long SCALE = 1000;
+
+    private final long earnedPerRequest;
+    private final long capacity;
+    private final AtomicLong balance;
+
+    /**
+     * @param ratio      retries earned per request, e.g. 0.1 for at most 10% extra load
+     * @param maxRetries retries the budget holds when full; it starts full
+     */
+    public RetryBudget(double ratio, int maxRetries) {
+        if (ratio < 0 || maxRetries < 0) {
+            throw new IllegalArgumentException("Retry budget ratio and size must not be negative but were "
+                    + ratio + " and " + maxRetries);
+        }
+        earnedPerRequest = Math.round(ratio * SCALE);
+        capacity = maxRetries * SCALE;
+        balance = new AtomicLong(capacity);
+    }
+
+    /**
+     * Credits one request sent
+     */
+    public void deposit() {
+        if (balance.get() < capacity) {
+            balance.updateAndGet(current -> Math.min(capacity, current + earnedPerRequest));
+        }
+    }
+
+    /**
+     * Takes one retry from the budget, or returns false if there is not a whole one left
+     */
+    public boolean tryWithdraw() {
+        while (true) {
+            long current = balance.get();
+            if (current < SCALE) {
+                return false;
+            }
+            if (balance.compareAndSet(current, current - SCALE)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Retries currently available
+     */
+    public double getBalance() {
+        return balance.get() / (double) SCALE;
+    }
+}
@@ -0,0 +1,133 @@
+package com.petstore.retry;
+
+import com.petstore.config.ConfigManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decides whether ApiClient retries a failed attempt. Only idempotent methods are retried
+ * (retry.methods, GET/PUT/DELETE by default), only on connection errors and transient statuses
+ * (retry.statuses), at most retry.max.attempts times, and only while the shared
+ * {@link RetryBudget} has retries left. Waits use exponential backoff with full jitter, so
+ * clients that failed together do not retry together.
+ */
+public class RetryPolicy {
+    private static final Logger logger = LoggerFactory.getLogger(RetryPolicy.class);
+    private static final RetryPolicy instance = new RetryPolicy();
+
+    private volatile RetryBudget budget;
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder budgetExhausted = new LongAdder();
+
+    private RetryPolicy() {
+        ConfigManager config = ConfigManager.getInstance();
+        budget = newBudget(config);
+        config.addReloadListener(snapshot -> budget = newBudget(config));
+    }
+
+    public static RetryPolicy getInstance() {
+        return instance;
+    }
+
+    private static RetryBudget newBudget(ConfigManager config) {
+        return new RetryBudget(config.getRetryBudgetRatio(), config.getRetryBudgetMax());
+    }
+
+    /**
+     * Whether requests with this method may be retried at all
+     */
+    public boolean appliesTo(String method) {
+        ConfigManager config = ConfigManager.getInstance();
+        return config.getRetryMaxAttempts() > 1 && config.getRetryMethods().contains(method);
+    }
+
+    /**
+     * Credits the budget for a request about to be sent
+     */
+    public void onRequest() {
+        budget.deposit();
+    }
+
+    /**
+     * Whether to retry after the given attempt failed with a status code (-1 if none) or an error;
+     * a true answer has already spent one retry from the budget
+     */
+    public boolean shouldRetry(String method, String endpoint, int attempt, int statusCode, Throwable failure) {
+        ConfigManager config = ConfigManager.getInstance();
+        if (attempt >= config.getRetryMaxAttempts()) {
+            return false;
+        }
+        boolean transientFailure = failure != null ? isTransient(failure) : config.getRetryStatuses().contains(statusCode);
+        if (!transientFailure) {
+            return false;
+        }
+        String outcome = failure != null ? failure.toString() : "status " + statusCode;
+        return tryRetry(method, endpoint, attempt, outcome);
+    }
+
+    /**
+     * Spends one retry from the budget for a retry decided by the caller, such as DataSeeder's
+     * retries of non-idempotent writes, and counts it like the ones shouldRetry grants
+     */
+    public boolean tryRetry(String method, String endpoint, int attempt, String outcome) {
+        if (!budget.tryWithdraw()) {
+            budgetExhausted.increment();
+            if (budgetExhausted.sum() == 1) {
+                logger.warn("Retry budget exhausted, not retrying {} {} after {}; further skips are logged at debug",
+                        method, endpoint, outcome);
+            } else {
+                logger.debug("Retry budget exhausted, not retrying {} {} after {}", method, endpoint, outcome);
+            }
+            return false;
+        }
+        retries.increment();
+        logger.info("Retrying {} {} after {} (attempt {})", method, endpoint, outcome, attempt);
+        return true;
+    }
+
+    /**
+     * Random wait before the retry that follows the given attempt: uniform between zero and
+     * retry.backoff.base doubled per attempt, capped at retry.backoff.max
+     */
+    public long backoffNanos(int attempt) {
+        ConfigManager config = ConfigManager.getInstance();
+        long ceiling = Math.min(config.getRetryBackoffMax(),
+                config.getRetryBackoffBase() << Math.min(attempt - 1, 30));
+        return TimeUnit.MILLISECONDS.toNanos(ThreadLocalRandom.current().nextLong(ceiling + 1));
+    }
+
+    /**
+     * Connection resets, timeouts and other I/O failures anywhere in the cause chain
+     */
+    static boolean isTransient(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof IOException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Retries sent since startup
+     */
+    public long getRetries() {
+        return retries.sum();
+    }
+
+    /**
+     * Retries skipped because the budget was empty
+     */
+    public long getBudgetExhausted() {
+        return budgetExhausted.sum();
+    }
+
+    public RetryBudget getBudget() {
+        return budget;
+    }
+}
@@ -0,0 +1,222 @@
+package com.petstore.seed;
+
+import io.restassured.response.Response;
+import com.petstore.api.PetApi;
+import com.petstore.api.StoreApi;
+import com.petstore.api.UserApi;
+import com.petstore.config.ConfigManager;
+import com.petstore.models.Order;
+import com.petstore.models.Pet;
+import com.petstore.models.User;
+import com.petstore.retry.RetryPolicy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Bulk seeding pipeline for pets, orders and users.
+ * <p>
+ * The calling thread generates entities and groups them into batches; each batch is sent on a
+ * virtual thread. At most {@code concurrency} batches are in flight, and the producer blocks until
+ * one finishes, so memory stays bounded however many entities are requested. Users go through
+ * /user/createWithArray in batches of seed.batch.size; pets and orders have no bulk endpoint and
+ * are sent one per request. Every entity must carry its own id (or username), which makes each
+ * request an upsert and retries idempotent. Retries draw on the shared {@link RetryPolicy} budget,
+ * so a failing backend is not hit with a retry per batch.
+ */
+public class DataSeeder {
+    private static final Logger logger = LoggerFactory.getLogger(DataSeeder.class);
+    private static final Duration RETRY_BACKOFF = Duration.ofMillis(100);
+
+    private final PetApi petApi;
+    private final StoreApi storeApi;
+    private final UserApi userApi;
+    private int concurrency;
+    private int batchSize;
+    private int maxAttempts;
+
+    private final LongAdder seeded = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder requests = new LongAdder();
+
+    public DataSeeder() {
+        this(new PetApi(), new StoreApi(), new UserApi());
+    }
+
+    public DataSeeder(PetApi petApi, StoreApi storeApi, UserApi userApi) {
+        ConfigManager config = ConfigManager.getInstance();
+        this.petApi = petApi;
+        this.storeApi = storeApi;
+        this.userApi = userApi;
+        this.concurrency = Math.min(config.getMaxConcurrency(), config.getPoolMaxPerRoute());
+        this.batchSize = config.getSeedBatchSize();
+        this.maxAttempts = config.getSeedMaxAttempts();
+    }
+
+    /**
+     * Maximum batches in flight; defaults to execution.max.concurrency capped at http.pool.max.per.route
+     */
+    public DataSeeder concurrency(int concurrency) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("concurrency must be at least 1 but was " + concurrency);
+        }
+        this.concurrency = concurrency;
+        return this;
+    }
+
+    /**
+     * Users per createWithArray request
+     */
+    public DataSeeder batchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be at least 1 but was " + batchSize);
+        }
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    public DataSeeder maxAttempts(int maxAttempts) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts must be at least 1 but was " + maxAttempts);
+        }
+        this.maxAttempts = maxAttempts;
+        return this;
+    }
+
+    /**
+     * Seed pets, e.g. seedPets(100_000, TestDataBuilder::buildPet)
+     */
+    public SeedReport seedPets(long count, Supplier<Pet> generator) {
+        return seed("pets", count, 1, generator,
+                pet -> Objects.requireNonNull(pet.getId(), "Seeded pets need an id"),
+                batch -> petApi.addPet(batch.get(0)));
+    }
+
+    /**
+     * Seed orders, e.g. seedOrders(100_000, TestDataBuilder::buildOrder)
+     */
+    public SeedReport seedOrders(long count, Supplier<Order> generator) {
+        return seed("orders", count, 1, generator,
+                order -> Objects.requireNonNull(order.getId(), "Seeded orders need an id"),
+                batch -> storeApi.placeOrder(batch.get(0)));
+    }
+
+    /**
+     * Seed users in createWithArray batches, e.g. seedUsers(100_000, TestDataBuilder::buildUser)
+     */
+    public SeedReport seedUsers(long count, Supplier<User> generator) {
+        return seed("users", count, batchSize, generator,
+                user -> Objects.requireNonNull(user.getUsername(), "Seeded users need a username"),
+                userApi::createUsersWithArray);
+    }
+
+    /**
+     * Entities seeded so far across all runs of this seeder; safe to poll from another thread
+     */
+    public long getSeeded() {
+        return seeded.sum();
+    }
+
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    public long getRetries() {
+        return retries.sum();
+    }
+
+    private <T> SeedReport seed(String entity, long count, int entitiesPerRequest, Supplier<T> generator,
+                                Consumer<T> validator, Function<List<T>, Response> send) {
+        logger.info("Seeding {} {} with {} per request and concurrency {}", count, entity, entitiesPerRequest, concurrency);
+        long seededBefore = seeded.sum();
+        long failedBefore = failed.sum();
+        long retriesBefore = retries.sum();
+        long requestsBefore = requests.sum();
+        long progressStep = Math.max(1, count / 10);
+        long nextProgress = progressStep;
+
+        long start = System.nanoTime();
+        Semaphore permits = new Semaphore(concurrency);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            long produced = 0;
+            while (produced < count) {
+                int size = (int) Math.min(entitiesPerRequest, count - produced);
+                List<T> batch = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    T item = generator.get();
+                    validator.accept(item);
+                    batch.add(item);
+                }
+                produced += size;
+
+                permits.acquireUninterruptibly();
+                executor.submit(() -> {
+                    try {
+                        sendWithRetry(entity, batch, send);
+                    } finally {
+                        permits.release();
+                    }
+                });
+
+                if (produced >= nextProgress) {
+                    logger.info("Seeding {}: {} submitted, {} seeded, {} failed",
+                            entity, produced, seeded.sum() - seededBefore, failed.sum() - failedBefore);
+                    nextProgress += progressStep;
+                }
+            }
+        }
+        SeedReport report = new SeedReport(entity, count, seeded.sum() - seededBefore, failed.sum() - failedBefore,
+                retries.sum() - retriesBefore, requests.sum() - requestsBefore,
+                Duration.ofNanos(System.nanoTime() - start));
+        logger.info("{}", report);
+        return report;
+    }
+
+    private <T> void sendWithRetry(String entity, List<T> batch, Function<List<T>, Response> send) {
+        RetryPolicy retryPolicy = RetryPolicy.getInstance();
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            requests.increment();
+            retryPolicy.onRequest();
+            String outcome;
+            try {
+                int statusCode = send.apply(batch).statusCode();
+                if (statusCode < 400) {
+                    seeded.add(batch.size());
+                    return;
+                }
+                outcome = "status " + statusCode;
+                if (!isRetryable(statusCode)) {
+                    logger.warn("Rejected {} batch of {}: {}", entity, batch.size(), outcome);
+                    break;
+                }
+            } catch (Exception e) {
+                // RestAssured can throw checked I/O errors such as ConnectException without declaring them
+                outcome = e.toString();
+            }
+            if (attempt == maxAttempts || !retryPolicy.tryRetry("SEED", entity, attempt, outcome)) {
+                logger.warn("Giving up on {} batch of {} after {} attempts: {}", entity, batch.size(), attempt, outcome);
+                break;
+            }
+            retries.increment();
+            LockSupport.parkNanos(RETRY_BACKOFF.toNanos() << (attempt - 1));
+        }
+        failed.add(batch.size());
+    }
+
+    private static boolean isRetryable(int statusCode) {
+        return statusCode == 408 || statusCode == 429 || statusCode >= 500;
+    }
+}
@@ -0,0 +1,24 @@
+package com.petstore.seed;
+
+import java.time.Duration;
+
+/**
+ * Outcome of one seeding run
+ */
+public record SeedReport(String entity, long requested, long seeded, long failed, long retries,
+                         long requests, Duration elapsed) {
+
+    /**
+     * Entities seeded per second
+     */
+    public double throughput() {
+        double seconds = Math.max(elapsed.toNanos() / 1e9, 1e-9);
+        return seeded / seconds;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Seeded %d/%d %s (%d failed, %d retries) with %d requests in %.1f s, %.1f/s",
+                seeded, requested, entity, failed, retries, requests, elapsed.toMillis() / 1000.0, throughput());
+    }
+}
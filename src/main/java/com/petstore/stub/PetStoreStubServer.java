@@ -0,0 +1,484 @@
+package com.petstore.stub;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import com.petstore.models.Order;
+import com.petstore.models.Pet;
+import com.petstore.models.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Embedded, in-process stand-in for the PetStore API.
+ * Implements the /pet, /store and /user endpoints used by the API classes on top of
+ * concurrent in-memory stores, and mirrors the status codes and bodies of the public server.
+ * Successful GETs also carry an ETag and answer a matching If-None-Match with 304, and bodies of
+ * at least {@value #COMPRESSION_THRESHOLD} bytes are gzip or deflate encoded when the request's
+ * Accept-Encoding allows it.
+ */
+public class PetStoreStubServer {
+    private static final Logger logger = LoggerFactory.getLogger(PetStoreStubServer.class);
+    private static final String BASE_PATH = "/v2";
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final int COMPRESSION_THRESHOLD = 1024;
+
+    private final Map<Long, Pet> pets = new ConcurrentHashMap<>();
+    private final Map<Long, Order> orders = new ConcurrentHashMap<>();
+    private final Map<String, User> users = new ConcurrentHashMap<>();
+    private final AtomicLong idSequence = new AtomicLong(9_000_000_000_000L);
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    /**
+     * Starts the server on an ephemeral loopback port
+     */
+    public PetStoreStubServer start() {
+        return start(0);
+    }
+
+    /**
+     * Starts the server on the given loopback port (0 picks a free one)
+     */
+    public synchronized PetStoreStubServer start(int port) {
+        if (server != null) {
+            throw new IllegalStateException("Stub server already running on port " + getPort());
+        }
+        try {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 1024);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to start stub server on port " + port, e);
+        }
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext(BASE_PATH + "/pet", safely(this::handlePet));
+        server.createContext(BASE_PATH + "/store", safely(this::handleStore));
+        server.createContext(BASE_PATH + "/user", safely(this::handleUser));
+        server.start();
+        logger.info("PetStore stub server started at {}", getBaseUrl());
+        return this;
+    }
+
+    /**
+     * Stops the server and clears all stored entities
+     */
+    public synchronized void stop() {
+        if (server == null) {
+            return;
+        }
+        server.stop(0);
+        executor.shutdownNow();
+        server = null;
+        executor = null;
+        reset();
+        logger.info("PetStore stub server stopped");
+    }
+
+    /**
+     * Removes all pets, orders and users
+     */
+    public void reset() {
+        pets.clear();
+        orders.clear();
+        users.clear();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Base URL to use as base.url, e.g. http://127.0.0.1:54321/v2
+     */
+    public String getBaseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + getPort() + BASE_PATH;
+    }
+
+    private void handlePet(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        List<String> segments = segments(exchange, "/pet");
+
+        if (segments.isEmpty()) {
+            if ("POST".equals(method) || "PUT".equals(method)) {
+                Pet pet = readBody(exchange, Pet.class);
+                if (pet == null) {
+                    sendMessage(exchange, 405, "Invalid input");
+                    return;
+                }
+                if (pet.getId() == null || pet.getId() == 0) {
+                    pet.setId(idSequence.incrementAndGet());
+                }
+                pets.put(pet.getId(), pet);
+                sendJson(exchange, 200, pet);
+                return;
+            }
+            sendMessage(exchange, 405, "Method not allowed");
+            return;
+        }
+
+        if (segments.size() == 1 && "findByStatus".equals(segments.get(0)) && "GET".equals(method)) {
+            Set<String> statuses = Arrays.stream(queryParams(exchange).getOrDefault("status", "").split(","))
+                    .map(String::trim)
+                    .collect(Collectors.toSet());
+            List<Pet> matches = pets.values().stream()
+                    .filter(pet -> statuses.contains(pet.getStatus()))
+                    .collect(Collectors.toList());
+            sendJson(exchange, 200, matches);
+            return;
+        }
+
+        Long petId = parseId(segments.get(0));
+        if (petId == null) {
+            sendMessage(exchange, 404, "java.lang.NumberFormatException: For input string: \"" + segments.get(0) + "\"");
+            return;
+        }
+
+        if (segments.size() == 2 && "uploadImage".equals(segments.get(1)) && "POST".equals(method)) {
+            long size = drain(exchange.getRequestBody());
+            sendMessage(exchange, 200, "additionalMetadata: null\nFile uploaded to ./upload, " + size + " bytes");
+            return;
+        }
+
+        if (segments.size() != 1) {
+            sendMessage(exchange, 404, "Not found");
+            return;
+        }
+
+        switch (method) {
+            case "GET" -> {
+                Pet pet = pets.get(petId);
+                if (pet == null) {
+                    sendError(exchange, 404, "Pet not found");
+                } else {
+                    sendJson(exchange, 200, pet);
+                }
+            }
+            case "DELETE" -> {
+                if (pets.remove(petId) == null) {
+                    sendEmpty(exchange, 404);
+                } else {
+                    sendMessage(exchange, 200, String.valueOf(petId));
+                }
+            }
+            default -> sendMessage(exchange, 405, "Method not allowed");
+        }
+    }
+
+    private void handleStore(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        List<String> segments = segments(exchange, "/store");
+
+        if (segments.size() == 1 && "inventory".equals(segments.get(0)) && "GET".equals(method)) {
+            Map<String, Integer> inventory = new TreeMap<>();
+            for (Pet pet : pets.values()) {
+                if (pet.getStatus() != null) {
+                    inventory.merge(pet.getStatus(), 1, Integer::sum);
+                }
+            }
+            sendJson(exchange, 200, inventory);
+            return;
+        }
+
+        if (segments.isEmpty() || !"order".equals(segments.get(0)) || segments.size() > 2) {
+            sendMessage(exchange, 404, "Not found");
+            return;
+        }
+
+        if (segments.size() == 1) {
+            if (!"POST".equals(method)) {
+                sendMessage(exchange, 405, "Method not allowed");
+                return;
+            }
+            Order order = readBody(exchange, Order.class);
+            if (order == null) {
+                sendError(exchange, 400, "Invalid Order");
+                return;
+            }
+            if (order.getId() == null || order.getId() == 0) {
+                order.setId(idSequence.incrementAndGet());
+            }
+            if (order.getComplete() == null) {
+                order.setComplete(false);
+            }
+            orders.put(order.getId(), order);
+            sendJson(exchange, 200, order);
+            return;
+        }
+
+        Long orderId = parseId(segments.get(1));
+        if (orderId == null) {
+            sendMessage(exchange, 404, "java.lang.NumberFormatException: For input string: \"" + segments.get(1) + "\"");
+            return;
+        }
+        switch (method) {
+            case "GET" -> {
+                Order order = orders.get(orderId);
+                if (order == null) {
+                    sendError(exchange, 404, "Order not found");
+                } else {
+                    sendJson(exchange, 200, order);
+                }
+            }
+            case "DELETE" -> {
+                if (orders.remove(orderId) == null) {
+                    sendMessage(exchange, 404, "Order Not Found");
+                } else {
+                    sendMessage(exchange, 200, String.valueOf(orderId));
+                }
+            }
+            default -> sendMessage(exchange, 405, "Method not allowed");
+        }
+    }
+
+    private void handleUser(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        List<String> segments = segments(exchange, "/user");
+
+        if (segments.isEmpty()) {
+            if (!"POST".equals(method)) {
+                sendMessage(exchange, 405, "Method not allowed");
+                return;
+            }
+            User user = readBody(exchange, User.class);
+            if (user == null) {
+                sendMessage(exchange, 400, "bad input");
+                return;
+            }
+            sendMessage(exchange, 200, String.valueOf(storeUser(user).getId()));
+            return;
+        }
+
+        String name = segments.get(0);
+        if (segments.size() == 1 && "GET".equals(method) && "login".equals(name)) {
+            exchange.getResponseHeaders().add("X-Rate-Limit", "5000");
+            exchange.getResponseHeaders().add("X-Expires-After", new java.util.Date(System.currentTimeMillis() + 3_600_000).toString());
+            sendMessage(exchange, 200, "logged in user session:" + System.nanoTime());
+            return;
+        }
+        if (segments.size() == 1 && "GET".equals(method) && "logout".equals(name)) {
+            sendMessage(exchange, 200, "ok");
+            return;
+        }
+        if (segments.size() == 1 && "POST".equals(method)
+                && ("createWithArray".equals(name) || "createWithList".equals(name))) {
+            List<User> batch = readBody(exchange, new TypeReference<List<User>>() { });
+            if (batch == null) {
+                sendMessage(exchange, 400, "bad input");
+                return;
+            }
+            batch.forEach(this::storeUser);
+            sendMessage(exchange, 200, "ok");
+            return;
+        }
+        if (segments.size() != 1) {
+            sendMessage(exchange, 404, "Not found");
+            return;
+        }
+
+        switch (method) {
+            case "GET" -> {
+                User user = users.get(name);
+                if (user == null) {
+                    sendError(exchange, 404, "User not found");
+                } else {
+                    sendJson(exchange, 200, user);
+                }
+            }
+            case "PUT" -> {
+                User user = readBody(exchange, User.class);
+                if (user == null) {
+                    sendMessage(exchange, 400, "bad input");
+                    return;
+                }
+                if (user.getUsername() == null) {
+                    user.setUsername(name);
+                }
+                if (!name.equals(user.getUsername())) {
+                    users.remove(name);
+                }
+                sendMessage(exchange, 200, String.valueOf(storeUser(user).getId()));
+            }
+            case "DELETE" -> {
+                if (users.remove(name) == null) {
+                    sendEmpty(exchange, 404);
+                } else {
+                    sendMessage(exchange, 200, name);
+                }
+            }
+            default -> sendMessage(exchange, 405, "Method not allowed");
+        }
+    }
+
+    private User storeUser(User user) {
+        if (user.getId() == null || user.getId() == 0) {
+            user.setId(idSequence.incrementAndGet());
+        }
+        users.put(String.valueOf(user.getUsername()), user);
+        return user;
+    }
+
+    private static HttpHandler safely(HttpHandler handler) {
+        return exchange -> {
+            try (exchange) {
+                handler.handle(exchange);
+            } catch (Exception e) {
+                logger.warn("Stub server failed to handle {} {}", exchange.getRequestMethod(), exchange.getRequestURI(), e);
+                try {
+                    sendMessage(exchange, 500, "something bad happened");
+                } catch (IOException | RuntimeException ignored) {
+                    // response already committed
+                }
+            }
+        };
+    }
+
+    private static List<String> segments(HttpExchange exchange, String resource) {
+        String path = exchange.getRequestURI().getPath().substring((BASE_PATH + resource).length());
+        List<String> segments = new ArrayList<>();
+        for (String segment : path.split("/")) {
+            if (!segment.isEmpty()) {
+                segments.add(URLDecoder.decode(segment, StandardCharsets.UTF_8));
+            }
+        }
+        return segments;
+    }
+
+    private static Map<String, String> queryParams(HttpExchange exchange) {
+        Map<String, String> params = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null) {
+            return params;
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            params.merge(URLDecoder.decode(key, StandardCharsets.UTF_8),
+                    URLDecoder.decode(value, StandardCharsets.UTF_8), (a, b) -> a + "," + b);
+        }
+        return params;
+    }
+
+    private static Long parseId(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static <T> T readBody(HttpExchange exchange, Class<T> type) throws IOException {
+        try (InputStream body = exchange.getRequestBody()) {
+            return objectMapper.readValue(body, type);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    private static <T> T readBody(HttpExchange exchange, TypeReference<T> type) throws IOException {
+        try (InputStream body = exchange.getRequestBody()) {
+            return objectMapper.readValue(body, type);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    private static long drain(InputStream body) throws IOException {
+        try (body) {
+            return body.transferTo(OutputStream.nullOutputStream());
+        }
+    }
+
+    private static void sendMessage(HttpExchange exchange, int status, String message) throws IOException {
+        sendJson(exchange, status, new ApiMessage(status, "unknown", message));
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        sendJson(exchange, status, new ApiMessage(1, "error", message));
+    }
+
+    private static void sendJson(HttpExchange exchange, int status, Object body) throws IOException {
+        byte[] bytes = objectMapper.writeValueAsBytes(body);
+        if (status == 200 && "GET".equals(exchange.getRequestMethod())) {
+            // Content-derived validator so clients can revalidate with If-None-Match
+            CRC32 checksum = new CRC32();
+            checksum.update(bytes);
+            String etag = "\"" + Long.toHexString(checksum.getValue()) + "\"";
+            exchange.getResponseHeaders().set("ETag", etag);
+            if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                sendEmpty(exchange, 304);
+                return;
+            }
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        if (bytes.length >= COMPRESSION_THRESHOLD) {
+            bytes = encode(exchange, bytes);
+        }
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Compresses the body with the first of gzip or deflate the client accepts; the ETag stays that of the
+     * uncompressed representation
+     */
+    private static byte[] encode(HttpExchange exchange, byte[] bytes) throws IOException {
+        String accepted = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        if (accepted == null) {
+            return bytes;
+        }
+        accepted = accepted.toLowerCase(Locale.ROOT);
+        String coding = accepted.contains("gzip") ? "gzip" : accepted.contains("deflate") ? "deflate" : null;
+        if (coding == null) {
+            return bytes;
+        }
+        ByteArrayOutputStream encoded = new ByteArrayOutputStream(bytes.length / 4);
+        try (OutputStream out = coding.equals("gzip") ? new GZIPOutputStream(encoded) : new DeflaterOutputStream(encoded)) {
+            out.write(bytes);
+        }
+        exchange.getResponseHeaders().set("Content-Encoding", coding);
+        exchange.getResponseHeaders().add("Vary", "Accept-Encoding");
+        return encoded.toByteArray();
+    }
+
+    private static void sendEmpty(HttpExchange exchange, int status) throws IOException {
+        exchange.sendResponseHeaders(status, -1);
+    }
+
+    /**
+     * Generic message body returned by the PetStore API
+     */
+    private record ApiMessage(int code, String type, String message) {
+    }
+}
@@ -0,0 +1,151 @@
+package com.petstore.throttle;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Caps requests in flight. Waiters get a future instead of a blocked thread, so async callers
+ * never tie up a thread and sync callers can simply join it (which parks a virtual thread).
+ * <p>
+ * In adaptive mode the limit follows AIMD: it grows by 1/limit per good response (about +1 per
+ * round of requests) and is cut by {@value #BACKOFF} on a 429/503 or a response slower than the
+ * latency target, staying between 1 and the configured maximum.
+ */
+public class ConcurrencyLimiter {
+    static final double BACKOFF = 0.7;
+    private static final CompletableFuture<Void> ACQUIRED = CompletableFuture.completedFuture(null);
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ArrayDeque<CompletableFuture<Void>> waiters = new ArrayDeque<>();
+    private final int maxLimit;
+    private final boolean adaptive;
+    private final long latencyTargetNanos;
+    private double limit;
+    private int inFlight;
+
+    /**
+     * @param maxLimit           maximum requests in flight (the starting limit when adaptive)
+     * @param adaptive           whether to adjust the limit from responses
+     * @param latencyTargetNanos slower responses count as overload when adaptive; 0 disables
+     */
+    public ConcurrencyLimiter(int maxLimit, boolean adaptive, long latencyTargetNanos) {
+        if (maxLimit < 1) {
+            throw new IllegalArgumentException("Concurrency limit must be at least 1 but was " + maxLimit);
+        }
+        this.maxLimit = maxLimit;
+        this.adaptive = adaptive;
+        this.latencyTargetNanos = latencyTargetNanos;
+        this.limit = maxLimit;
+    }
+
+    /**
+     * Completes once a slot is held; every completed acquire must be matched by one release
+     */
+    public CompletableFuture<Void> acquire() {
+        lock.lock();
+        try {
+            if (inFlight < (int) limit) {
+                inFlight++;
+                return ACQUIRED;
+            }
+            CompletableFuture<Void> waiter = new CompletableFuture<>();
+            waiters.add(waiter);
+            return waiter;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Frees a slot, feeding the response into the adaptive limit
+     *
+     * @param overloaded    the server signalled overload (429/503)
+     * @param latencyNanos  time the request took once it held the slot
+     */
+    public void release(boolean overloaded, long latencyNanos) {
+        List<CompletableFuture<Void>> ready;
+        lock.lock();
+        try {
+            inFlight--;
+            if (adaptive) {
+                if (overloaded || (latencyTargetNanos > 0 && latencyNanos > latencyTargetNanos)) {
+                    limit = Math.max(1, limit * BACKOFF);
+                } else {
+                    limit = Math.min(maxLimit, limit + 1 / limit);
+                }
+            }
+            ready = admitWaiters();
+        } finally {
+            lock.unlock();
+        }
+        complete(ready);
+    }
+
+    private List<CompletableFuture<Void>> admitWaiters() {
+        List<CompletableFuture<Void>> ready = new ArrayList<>(2);
+        while (inFlight < (int) limit && !waiters.isEmpty()) {
+            CompletableFuture<Void> waiter = waiters.poll();
+            if (!waiter.isDone()) {
+                inFlight++;
+                ready.add(waiter);
+            }
+        }
+        return ready;
+    }
+
+    /**
+     * Completes admitted waiters outside the lock; a slot handed to a waiter that was cancelled
+     * meanwhile goes to the next one without touching the adaptive limit
+     */
+    private void complete(List<CompletableFuture<Void>> ready) {
+        for (CompletableFuture<Void> waiter : ready) {
+            if (!waiter.complete(null)) {
+                List<CompletableFuture<Void>> next;
+                lock.lock();
+                try {
+                    inFlight--;
+                    next = admitWaiters();
+                } finally {
+                    lock.unlock();
+                }
+                complete(next);
+            }
+        }
+    }
+
+    /**
+     * Current limit (fixed unless adaptive)
+     */
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Callers waiting for a slot
+     */
+    public int getQueued() {
+        lock.lock();
+        try {
+            return waiters.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
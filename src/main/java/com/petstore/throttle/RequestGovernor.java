@@ -0,0 +1,185 @@
+package com.petstore.throttle;
+
+import com.petstore.config.ConfigManager;
+import com.petstore.metrics.RequestMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Client-side rate and concurrency limits per endpoint group, the first path segment ("pet",
+ * "store", "user"), applied by ApiClient around every request so parallel suites stay below
+ * what a shared server tolerates instead of failing on 429s.
+ * <p>
+ * Groups without throttle.* settings pass straight through. Sync callers wait by parking, which
+ * frees the carrier when they run on virtual threads; async callers get a future completed by a
+ * timer or by the request releasing the slot, so no thread waits at all. Time spent waiting is
+ * recorded in {@link RequestMetrics} as "QUEUE /pet" etc., next to the request latencies.
+ */
+public class RequestGovernor {
+    private static final Logger logger = LoggerFactory.getLogger(RequestGovernor.class);
+    private static final RequestGovernor instance = new RequestGovernor();
+    private static final CompletableFuture<Permit> UNLIMITED = CompletableFuture.completedFuture(Permit.NONE);
+
+    private final Map<String, GroupThrottle> groups = new ConcurrentHashMap<>();
+
+    private RequestGovernor() {
+        ConfigManager.getInstance().addReloadListener(snapshot -> groups.clear());
+    }
+
+    public static RequestGovernor getInstance() {
+        return instance;
+    }
+
+    /**
+     * Held while a request is in flight; release it exactly once with the outcome
+     */
+    public interface Permit {
+        Permit NONE = (statusCode, latencyNanos) -> {
+        };
+
+        /**
+         * @param statusCode   response status, or -1 if the request failed without one
+         * @param latencyNanos time from sending the request to reading its response
+         */
+        void release(int statusCode, long latencyNanos);
+    }
+
+    /**
+     * Endpoint group of a path, e.g. "/pet/123?x=1" -> "pet"
+     */
+    public static String group(String endpoint) {
+        int start = endpoint.startsWith("/") ? 1 : 0;
+        int end = start;
+        while (end < endpoint.length() && endpoint.charAt(end) != '/' && endpoint.charAt(end) != '?') {
+            end++;
+        }
+        return endpoint.substring(start, end);
+    }
+
+    /**
+     * Waits until the endpoint's group allows another request and returns its permit
+     */
+    public Permit acquire(String endpoint) {
+        GroupThrottle throttle = throttle(endpoint);
+        if (throttle == null) {
+            return Permit.NONE;
+        }
+        long start = System.nanoTime();
+        long wait = throttle.reserve();
+        if (wait > 0) {
+            long deadline = start + wait;
+            for (long remaining = wait; remaining > 0; remaining = deadline - System.nanoTime()) {
+                LockSupport.parkNanos(remaining);
+            }
+        }
+        if (throttle.limiter != null) {
+            throttle.limiter.acquire().join();
+        }
+        throttle.recordQueueDelay(RequestMetrics.getInstance().currentScope(), start);
+        return throttle;
+    }
+
+    /**
+     * Permit that completes when the endpoint's group allows another request, without blocking a
+     * thread; the wait is recorded in the given metrics scope of the requesting thread
+     */
+    public CompletableFuture<Permit> acquireAsync(String endpoint, RequestMetrics.Scope scope) {
+        GroupThrottle throttle = throttle(endpoint);
+        if (throttle == null) {
+            return UNLIMITED;
+        }
+        long start = System.nanoTime();
+        long wait = throttle.reserve();
+        CompletableFuture<Void> ready = wait > 0
+                ? CompletableFuture.runAsync(() -> {
+                }, CompletableFuture.delayedExecutor(wait, TimeUnit.NANOSECONDS, Runnable::run))
+                : CompletableFuture.completedFuture(null);
+        if (throttle.limiter != null) {
+            ready = ready.thenCompose(ignored -> throttle.limiter.acquire());
+        }
+        return ready.thenApply(ignored -> {
+            throttle.recordQueueDelay(scope, start);
+            return throttle;
+        });
+    }
+
+    /**
+     * Current concurrency limit of a group (it moves when throttle.adaptive is on), or -1 if unlimited
+     */
+    public int getConcurrencyLimit(String group) {
+        GroupThrottle throttle = throttle(group);
+        return throttle == null || throttle.limiter == null ? -1 : throttle.limiter.getLimit();
+    }
+
+    /**
+     * Requests of a group waiting for a concurrency slot
+     */
+    public int getQueued(String group) {
+        GroupThrottle throttle = throttle(group);
+        return throttle == null || throttle.limiter == null ? 0 : throttle.limiter.getQueued();
+    }
+
+    private GroupThrottle throttle(String endpoint) {
+        String group = group(endpoint);
+        GroupThrottle throttle = groups.get(group);
+        if (throttle == null) {
+            throttle = groups.computeIfAbsent(group, GroupThrottle::create);
+        }
+        return throttle.isLimited() ? throttle : null;
+    }
+
+    private static final class GroupThrottle implements Permit {
+        private final String group;
+        private final TokenBucket bucket;
+        private final ConcurrencyLimiter limiter;
+
+        private GroupThrottle(String group, TokenBucket bucket, ConcurrencyLimiter limiter) {
+            this.group = group;
+            this.bucket = bucket;
+            this.limiter = limiter;
+        }
+
+        static GroupThrottle create(String group) {
+            ConfigManager config = ConfigManager.getInstance();
+            double rate = config.getThrottleRate(group);
+            int burst = config.getThrottleBurst(group);
+            int concurrency = config.getThrottleConcurrency(group);
+            boolean adaptive = config.isThrottleAdaptive();
+            GroupThrottle throttle = new GroupThrottle(group,
+                    rate > 0 ? new TokenBucket(rate, burst) : null,
+                    concurrency > 0 ? new ConcurrencyLimiter(concurrency, adaptive,
+                            TimeUnit.MILLISECONDS.toNanos(config.getThrottleLatencyTarget())) : null);
+            if (throttle.isLimited()) {
+                logger.info("Throttling /{}: rate={}/s (burst {}), concurrency={}{}", group,
+                        rate > 0 ? rate : "unlimited", burst, concurrency > 0 ? concurrency : "unlimited",
+                        adaptive && concurrency > 0 ? " (adaptive)" : "");
+            }
+            return throttle;
+        }
+
+        boolean isLimited() {
+            return bucket != null || limiter != null;
+        }
+
+        long reserve() {
+            return bucket == null ? 0 : bucket.reserve();
+        }
+
+        void recordQueueDelay(RequestMetrics.Scope scope, long startNanos) {
+            RequestMetrics.getInstance().record(scope, "QUEUE", "/" + group, startNanos, System.nanoTime(), true);
+        }
+
+        @Override
+        public void release(int statusCode, long latencyNanos) {
+            if (limiter != null) {
+                limiter.release(statusCode == 429 || statusCode == 503, latencyNanos);
+            }
+        }
+    }
+}
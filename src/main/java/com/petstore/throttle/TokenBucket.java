@@ -0,0 +1,45 @@
+package com.petstore.throttle;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket (GCRA form): one atomic "theoretical arrival time" instead of a token
+ * count and refill timer. {@link #reserve()} never blocks; it books the next slot and returns how
+ * long the caller has to wait for it, so the caller decides how to wait (park a virtual thread or
+ * schedule an async continuation).
+ */
+public class TokenBucket {
+    private final long origin = System.nanoTime();
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final AtomicLong theoreticalArrival;
+
+    /**
+     * @param ratePerSecond sustained requests per second
+     * @param burst         requests that may be sent back to back after an idle period
+     */
+    public TokenBucket(double ratePerSecond, int burst) {
+        if (ratePerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Rate must be positive and burst at least 1 but were "
+                    + ratePerSecond + " and " + burst);
+        }
+        intervalNanos = Math.max(1, (long) (1_000_000_000L / ratePerSecond));
+        toleranceNanos = intervalNanos * (burst - 1);
+        // Start full, as after an idle period, so the first burst goes out without waiting
+        theoreticalArrival = new AtomicLong(-toleranceNanos);
+    }
+
+    /**
+     * Reserves the next slot and returns the nanoseconds until it opens (0 when it is open now)
+     */
+    public long reserve() {
+        while (true) {
+            long previous = theoreticalArrival.get();
+            long now = System.nanoTime() - origin;
+            long slot = Math.max(previous, now - toleranceNanos);
+            if (theoreticalArrival.compareAndSet(previous, slot + intervalNanos)) {
+                return Math.max(0, slot - now);
+            }
+        }
+    }
+}
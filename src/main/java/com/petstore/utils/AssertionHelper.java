@@ -1,14 +1,31 @@
 package com.petstore.utils;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import io.restassured.response.Response;
+import com.petstore.assertions.ResponseExpectations;
+import com.petstore.metrics.LatencyHistogram;
+import com.petstore.metrics.LatencySource;
+import com.petstore.metrics.LatencySummary;
+import com.petstore.metrics.RequestMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
 /**
  * Utility class for common assertions and response validations
  */
 public class AssertionHelper {
     private static final Logger logger = LoggerFactory.getLogger(AssertionHelper.class);
+    private static final int MAX_COMPILED = 256;
+    /** Expectations of assertJsonPath and assertResponseContainsKey by path and expected value */
+    private static final Map<CompiledKey, ResponseExpectations> compiled = new ConcurrentHashMap<>();
 
     /**
      * Assert response status code
@@ -33,10 +50,14 @@ public class AssertionHelper {
     }
 
     /**
-     * Assert response contains a specific key
+     * Assert response contains a specific key with a non-null value
      */
     public static void assertResponseContainsKey(Response response, String key) {
         logger.info("Asserting response contains key: {}", key);
+        if (ResponseExpectations.supportsPath(key)) {
+            compiled(key, null, true).verify(response);
+            return;
+        }
         Object value = response.jsonPath().get(key);
         if (value == null) {
             throw new AssertionError("Response should contain key: " + key);
@@ -44,16 +65,62 @@ public class AssertionHelper {
     }
 
     /**
-     * Assert response JSON path value
+     * Assert response JSON path value; key and index paths such as "category.name" or "tags[0].name"
+     * are matched on the body bytes by {@link ResponseExpectations} (which defers to JsonPath where the
+     * body gives them a GPath meaning), other GPath expressions go through JsonPath
      */
     public static void assertJsonPath(Response response, String jsonPath, Object expectedValue) {
         logger.info("Asserting JSON path '{}' equals '{}'", jsonPath, expectedValue);
+        if (ResponseExpectations.supportsPath(jsonPath)) {
+            compiled(jsonPath, expectedValue, false).verify(response);
+            return;
+        }
         Object actualValue = response.jsonPath().get(jsonPath);
         if (!actualValue.equals(expectedValue)) {
             throw new AssertionError("JSON path '" + jsonPath + "': expected " + expectedValue + " but got " + actualValue);
         }
     }
 
+    /**
+     * Assert a compiled set of expectations: every failure is reported in one AssertionError
+     */
+    public static void assertResponse(Response response, ResponseExpectations expectations) {
+        logger.info("Asserting {}", expectations);
+        expectations.verify(response);
+    }
+
+    /**
+     * Assert a field of a typed response model, e.g. assertFieldEquals("name", pet.getName(), "Fluffy")
+     */
+    public static void assertFieldEquals(String field, Object actual, Object expected) {
+        logger.info("Asserting field '{}' equals '{}'", field, expected);
+        if (!Objects.equals(actual, expected)) {
+            throw new AssertionError("Field '" + field + "': expected " + expected + " but got " + actual);
+        }
+    }
+
+    /**
+     * Assert a typed result list is not empty
+     */
+    public static void assertNotEmpty(Collection<?> items, String description) {
+        logger.info("Asserting {} is not empty", description);
+        if (items == null || items.isEmpty()) {
+            throw new AssertionError("Expected " + description + " not to be empty");
+        }
+    }
+
+    /**
+     * Assert every item of a typed result list satisfies a condition
+     */
+    public static <T> void assertAllMatch(Collection<T> items, Predicate<? super T> condition, String description) {
+        logger.info("Asserting all {} items {}", items.size(), description);
+        for (T item : items) {
+            if (!condition.test(item)) {
+                throw new AssertionError("Expected all items to " + description + " but found: " + item);
+            }
+        }
+    }
+
     /**
      * Assert response header exists
      */
@@ -77,24 +144,222 @@ public class AssertionHelper {
     }
 
     /**
-     * Assert response body contains text
+     * Assert response body contains text, searched in the raw body bytes without decoding them into a String
      */
     public static void assertResponseBodyContains(Response response, String text) {
         logger.info("Asserting response body contains: {}", text);
-        String body = response.getBody().asString();
-        if (!body.contains(text)) {
+        if (!ResponseBodies.contains(response, text)) {
             throw new AssertionError("Response body should contain: " + text);
         }
     }
 
+    /**
+     * Assert response body contains a byte sequence, e.g. a marker in a binary or pre-encoded payload
+     */
+    public static void assertResponseBodyContains(Response response, byte[] fragment) {
+        logger.info("Asserting response body contains {} bytes", fragment.length);
+        if (ResponseBodies.indexOf(ResponseBodies.bytes(response), fragment) < 0) {
+            throw new AssertionError("Response body should contain the " + fragment.length + " given bytes");
+        }
+    }
+
+    /**
+     * Assert the response body is the same JSON document as expectedJson: field order and whitespace
+     * are ignored, values and array order are not
+     */
+    public static void assertJsonEquals(Response response, String expectedJson) {
+        logger.info("Asserting response body equals JSON: {}", expectedJson);
+        JsonNode expected = parseExpected(expectedJson);
+        JsonNode actual = ResponseBodies.readTree(response);
+        if (!expected.equals(actual)) {
+            throw new AssertionError("Response body should equal " + expected + " but was " + actual);
+        }
+    }
+
+    /**
+     * Assert the response body matches expectedJson where it says something: every field of an expected
+     * object must be present with a matching value, extra fields are ignored; arrays must have the same
+     * length and match element by element. E.g. assertJsonContains(response, "{\"status\":\"available\"}")
+     */
+    public static void assertJsonContains(Response response, String expectedJson) {
+        logger.info("Asserting response body contains JSON: {}", expectedJson);
+        JsonNode expected = parseExpected(expectedJson);
+        JsonNode actual = ResponseBodies.readTree(response);
+        String mismatch = mismatch("$", expected, actual);
+        if (mismatch != null) {
+            throw new AssertionError("Response body does not match " + expected + ": " + mismatch);
+        }
+    }
+
+    private static JsonNode parseExpected(String expectedJson) {
+        try {
+            return JsonCodec.mapper().readTree(expectedJson);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Expected value is not valid JSON: " + expectedJson, e);
+        }
+    }
+
+    /**
+     * First place where actual does not contain expected, or null when it does
+     */
+    private static String mismatch(String path, JsonNode expected, JsonNode actual) {
+        if (actual == null || actual.isMissingNode()) {
+            return path + " is missing";
+        }
+        if (expected.isObject() && actual.isObject()) {
+            for (Iterator<Map.Entry<String, JsonNode>> fields = expected.fields(); fields.hasNext(); ) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                String mismatch = mismatch(path + "." + field.getKey(), field.getValue(), actual.get(field.getKey()));
+                if (mismatch != null) {
+                    return mismatch;
+                }
+            }
+            return null;
+        }
+        if (expected.isArray() && actual.isArray()) {
+            if (expected.size() != actual.size()) {
+                return path + " has " + actual.size() + " elements, expected " + expected.size();
+            }
+            for (int i = 0; i < expected.size(); i++) {
+                String mismatch = mismatch(path + "[" + i + "]", expected.get(i), actual.get(i));
+                if (mismatch != null) {
+                    return mismatch;
+                }
+            }
+            return null;
+        }
+        if (expected.isNumber() && actual.isNumber()) {
+            return expected.decimalValue().compareTo(actual.decimalValue()) == 0
+                    ? null : path + " is " + actual + ", expected " + expected;
+        }
+        return expected.equals(actual) ? null : path + " is " + actual + ", expected " + expected;
+    }
+
     /**
      * Assert response time is within acceptable limit
      */
     public static void assertResponseTime(Response response, long maxTimeMs) {
         long responseTime = response.getTime();
         logger.info("Asserting response time {} is less than {}ms", responseTime, maxTimeMs);
+        if (responseTime < 0) {
+            throw new AssertionError("Response time was not measured for this response");
+        }
         if (responseTime >= maxTimeMs) {
             throw new AssertionError("Response time should be less than " + maxTimeMs + "ms but got " + responseTime + "ms");
         }
     }
+
+    /**
+     * Assert a latency percentile of all requests recorded for an endpoint, e.g. ("GET /pet/{id}", 99, 150)
+     */
+    public static void assertPercentileLessThan(String endpoint, double percentile, long maxTimeMs) {
+        assertPercentileLessThan(RequestMetrics.getInstance(), endpoint, percentile, maxTimeMs);
+    }
+
+    /**
+     * Assert a latency percentile of the requests an endpoint recorded in the given source,
+     * such as a {@link RequestMetrics.Scope} opened for one test
+     */
+    public static void assertPercentileLessThan(LatencySource source, String endpoint, double percentile, long maxTimeMs) {
+        LatencyHistogram histogram = source.getHistogram(endpoint);
+        requireSamples(endpoint, histogram.getTotalCount());
+        double actualMs = histogram.getValueAtPercentile(percentile) / 1000.0;
+        logger.info("Asserting p{} of {} ({} samples) {}ms is less than {}ms",
+                percentile, endpoint, histogram.getTotalCount(), actualMs, maxTimeMs);
+        if (actualMs >= maxTimeMs) {
+            throw new AssertionError("p" + percentile + " of " + endpoint + " should be less than " + maxTimeMs
+                    + "ms but got " + actualMs + "ms over " + histogram.getTotalCount() + " requests");
+        }
+    }
+
+    /**
+     * Assert the share of failed (4xx/5xx or exception) requests recorded for an endpoint,
+     * as a fraction: 0.001 is 0.1%
+     */
+    public static void assertErrorRateBelow(String endpoint, double maxErrorRate) {
+        assertErrorRateBelow(RequestMetrics.getInstance(), endpoint, maxErrorRate);
+    }
+
+    public static void assertErrorRateBelow(LatencySource source, String endpoint, double maxErrorRate) {
+        assertErrorRateBelow(requireSummary(source, endpoint), maxErrorRate);
+    }
+
+    /**
+     * Assert the error rate of a summarized series, e.g. an operation of a load report
+     */
+    public static void assertErrorRateBelow(LatencySummary summary, double maxErrorRate) {
+        requireSamples(summary.name(), summary.count());
+        logger.info("Asserting error rate of {} ({} of {}) is below {}",
+                summary.name(), summary.errors(), summary.count(), maxErrorRate);
+        if (summary.errorRate() >= maxErrorRate) {
+            throw new AssertionError("Error rate of " + summary.name() + " should be below " + maxErrorRate
+                    + " but got " + summary.errorRate() + " (" + summary.errors() + " of " + summary.count() + ")");
+        }
+    }
+
+    /**
+     * Assert the requests per second recorded for an endpoint, measured from its first request
+     * to its last response
+     */
+    public static void assertThroughputAtLeast(String endpoint, double minRequestsPerSecond) {
+        assertThroughputAtLeast(RequestMetrics.getInstance(), endpoint, minRequestsPerSecond);
+    }
+
+    public static void assertThroughputAtLeast(LatencySource source, String endpoint, double minRequestsPerSecond) {
+        assertThroughputAtLeast(requireSummary(source, endpoint), minRequestsPerSecond);
+    }
+
+    /**
+     * Assert the throughput of a summarized series, e.g. the total of a load report
+     */
+    public static void assertThroughputAtLeast(LatencySummary summary, double minRequestsPerSecond) {
+        requireSamples(summary.name(), summary.count());
+        logger.info("Asserting throughput of {} {} req/s is at least {} req/s",
+                summary.name(), summary.throughput(), minRequestsPerSecond);
+        if (summary.throughput() < minRequestsPerSecond) {
+            throw new AssertionError("Throughput of " + summary.name() + " should be at least " + minRequestsPerSecond
+                    + " req/s but got " + summary.throughput() + " req/s");
+        }
+    }
+
+    /**
+     * Expectation for the single-check helpers, reused for the same path and an immutable expected
+     * value (or none); other values are compiled per call
+     */
+    private static ResponseExpectations compiled(String path, Object expectedValue, boolean presenceOnly) {
+        boolean cacheable = presenceOnly || expectedValue == null || expectedValue instanceof String
+                || expectedValue instanceof Number || expectedValue instanceof Boolean;
+        if (!cacheable) {
+            return compile(path, expectedValue, false);
+        }
+        CompiledKey key = new CompiledKey(path, expectedValue, presenceOnly);
+        ResponseExpectations expectations = compiled.get(key);
+        if (expectations == null) {
+            if (compiled.size() >= MAX_COMPILED) {
+                compiled.clear();
+            }
+            expectations = compiled.computeIfAbsent(key, ignored -> compile(path, expectedValue, presenceOnly));
+        }
+        return expectations;
+    }
+
+    private static ResponseExpectations compile(String path, Object expectedValue, boolean presenceOnly) {
+        ResponseExpectations.Builder builder = ResponseExpectations.builder();
+        return (presenceOnly ? builder.jsonFieldPresent(path) : builder.jsonField(path, expectedValue)).build();
+    }
+
+    private record CompiledKey(String path, Object expectedValue, boolean presenceOnly) {
+    }
+
+    private static LatencySummary requireSummary(LatencySource source, String endpoint) {
+        LatencySummary summary = source.getSummary(endpoint);
+        requireSamples(endpoint, summary == null ? 0 : summary.count());
+        return summary;
+    }
+
+    private static void requireSamples(String endpoint, long count) {
+        if (count == 0) {
+            throw new AssertionError("No requests recorded for " + endpoint);
+        }
+    }
 }
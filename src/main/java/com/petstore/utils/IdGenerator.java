@@ -0,0 +1,108 @@
+package com.petstore.utils;
+
+import com.petstore.config.ConfigManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.random.RandomGenerator;
+
+/**
+ * Collision-free id source for generated test data.
+ * <p>
+ * An id is a 10-bit node id followed by a 43-bit sequence, so ids stay positive and below 2^53
+ * (exact in any JSON parser). Distinct node ids (id.node, e.g. the Surefire fork number) keep
+ * forks apart; within a JVM each thread reserves sequence blocks of {@value #BLOCK_SIZE} from one
+ * shared counter and hands ids out locally, so generation needs no shared writes per id and scales
+ * with threads. Random values come from a per-thread generator: ThreadLocalRandom normally, or
+ * generators split from id.seed for reproducible runs, in which case the sequence starts at 1.
+ */
+public final class IdGenerator {
+    private static final Logger logger = LoggerFactory.getLogger(IdGenerator.class);
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 43;
+    static final int MAX_NODE = (1 << NODE_BITS) - 1;
+    static final long MAX_SEQUENCE = (1L << SEQUENCE_BITS) - 1;
+    static final int BLOCK_SIZE = 1024;
+
+    private final long nodeBits;
+    private final AtomicLong nextBlock;
+    private final ThreadLocal<long[]> block = ThreadLocal.withInitial(() -> new long[]{0, 0});
+    private final SplittableRandom seededRoot;
+    private final ThreadLocal<RandomGenerator> seededRandom;
+
+    private IdGenerator(int node, long firstSequence, SplittableRandom seededRoot) {
+        if (node < 0 || node > MAX_NODE) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE + " but was " + node);
+        }
+        this.nodeBits = (long) node << SEQUENCE_BITS;
+        this.nextBlock = new AtomicLong(firstSequence);
+        this.seededRoot = seededRoot;
+        this.seededRandom = seededRoot == null ? null : ThreadLocal.withInitial(this::splitSeeded);
+    }
+
+    /**
+     * Reproducible generator: ids start at sequence 1 and each thread's random values are split
+     * from the seed in the order threads first ask for them, so a single-threaded run produces the
+     * same data every time
+     */
+    public static IdGenerator seeded(int node, long seed) {
+        return new IdGenerator(node, 1, new SplittableRandom(seed));
+    }
+
+    /**
+     * Non-reproducible generator starting at a random point of the sequence space, so separate runs
+     * on the same node are very unlikely to overlap
+     */
+    public static IdGenerator unseeded(int node) {
+        long firstBlock = ThreadLocalRandom.current().nextLong(1, (MAX_SEQUENCE >> 1) / BLOCK_SIZE);
+        return new IdGenerator(node, firstBlock * BLOCK_SIZE, null);
+    }
+
+    /**
+     * Generator configured by id.node (random when unset) and id.seed (unseeded when unset)
+     */
+    public static IdGenerator fromConfig() {
+        ConfigManager config = ConfigManager.getInstance();
+        Integer configuredNode = config.getIdNode();
+        int node = configuredNode != null ? configuredNode : ThreadLocalRandom.current().nextInt(MAX_NODE + 1);
+        Long seed = config.getIdSeed();
+        logger.info("Generating test data ids on node {}{}", node, seed == null ? "" : " with seed " + seed);
+        return seed == null ? unseeded(node) : seeded(node, seed);
+    }
+
+    /**
+     * Next id, unique across threads of this generator and across generators with other node ids
+     */
+    public long nextId() {
+        long[] range = block.get();
+        if (range[0] == range[1]) {
+            long start = nextBlock.getAndAdd(BLOCK_SIZE);
+            if (start + BLOCK_SIZE - 1 > MAX_SEQUENCE) {
+                throw new IllegalStateException("Id sequence exhausted on node " + node());
+            }
+            range[0] = start;
+            range[1] = start + BLOCK_SIZE;
+        }
+        return nodeBits | range[0]++;
+    }
+
+    public int node() {
+        return (int) (nodeBits >>> SEQUENCE_BITS);
+    }
+
+    /**
+     * Random generator for the calling thread; never shared between threads
+     */
+    public RandomGenerator random() {
+        return seededRandom == null ? ThreadLocalRandom.current() : seededRandom.get();
+    }
+
+    private RandomGenerator splitSeeded() {
+        synchronized (seededRoot) {
+            return seededRoot.split();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.petstore.utils;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.petstore.models.Category;
+import com.petstore.models.Order;
+import com.petstore.models.Pet;
+import com.petstore.models.User;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One shared, pre-configured Jackson mapper for the whole framework, with readers and writers
+ * resolved once per type and reused. ObjectMapper, ObjectReader and ObjectWriter are thread-safe,
+ * so the cached instances can be shared by every thread.
+ */
+public final class JsonCodec {
+    private static final ObjectMapper mapper = JsonMapper.builder()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .disable(SerializationFeature.FAIL_ON_EMPTY_BEANS)
+            .build();
+
+    private static final ClassValue<ObjectWriter> writers = new ClassValue<>() {
+        @Override
+        protected ObjectWriter computeValue(Class<?> type) {
+            return mapper.writerFor(type);
+        }
+    };
+
+    private static final Map<Type, ObjectReader> readers = new ConcurrentHashMap<>();
+
+    static {
+        for (Class<?> model : new Class<?>[]{Pet.class, Order.class, User.class, Category.class,
+                Pet[].class, Order[].class, User[].class}) {
+            writer(model);
+            reader(model);
+        }
+        reader(listOf(Pet.class));
+        reader(mapOf(String.class, Integer.class));
+    }
+
+    private JsonCodec() {
+    }
+
+    public static ObjectMapper mapper() {
+        return mapper;
+    }
+
+    /**
+     * Cached writer with the root serializer for the type already resolved
+     */
+    public static ObjectWriter writer(Class<?> type) {
+        return writers.get(type);
+    }
+
+    /**
+     * Cached reader with the root deserializer for the type already resolved
+     */
+    public static ObjectReader reader(Type type) {
+        ObjectReader reader = readers.get(type);
+        if (reader == null) {
+            reader = readers.computeIfAbsent(type, t -> mapper.readerFor(mapper.constructType(t)));
+        }
+        return reader;
+    }
+
+    /**
+     * Type of a JSON array read as a List of the element type
+     */
+    public static JavaType listOf(Class<?> elementType) {
+        return mapper.getTypeFactory().constructCollectionType(List.class, elementType);
+    }
+
+    /**
+     * Type of a JSON object read as a Map
+     */
+    public static JavaType mapOf(Class<?> keyType, Class<?> valueType) {
+        return mapper.getTypeFactory().constructMapType(Map.class, keyType, valueType);
+    }
+
+    public static byte[] toBytes(Object value) {
+        try {
+            return writer(value.getClass()).writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to serialize " + value.getClass().getSimpleName(), e);
+        }
+    }
+
+    public static String toJson(Object value) {
+        try {
+            return writer(value.getClass()).writeValueAsString(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to serialize " + value.getClass().getSimpleName(), e);
+        }
+    }
+
+    public static <T> T fromBytes(byte[] json, Type type) {
+        try {
+            return reader(type).readValue(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to deserialize " + type.getTypeName(), e);
+        }
+    }
+}
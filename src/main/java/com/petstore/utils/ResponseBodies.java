@@ -0,0 +1,107 @@
+package com.petstore.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.restassured.response.Response;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.StandardCharsets;
+import java.nio.charset.UnsupportedCharsetException;
+import java.util.Locale;
+
+/**
+ * Views of a buffered response body that work on the bytes RestAssured already holds instead of
+ * decoding them into a String first. The body is already decompressed, whatever Content-Encoding
+ * the server used.
+ */
+public final class ResponseBodies {
+
+    private ResponseBodies() {
+    }
+
+    /**
+     * The body bytes as held by the response, not a copy: treat them as read-only
+     */
+    public static byte[] bytes(Response response) {
+        return response.asByteArray();
+    }
+
+    /**
+     * Stream over the body bytes, e.g. for a streaming parser
+     */
+    public static InputStream stream(Response response) {
+        return new ByteArrayInputStream(bytes(response));
+    }
+
+    /**
+     * Read-only buffer over the body bytes
+     */
+    public static ByteBuffer buffer(Response response) {
+        return ByteBuffer.wrap(bytes(response)).asReadOnlyBuffer();
+    }
+
+    /**
+     * Parses the body bytes into a JSON tree without building a String or a JsonPath
+     */
+    public static JsonNode readTree(Response response) {
+        try {
+            return JsonCodec.mapper().readTree(bytes(response));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Response body is not valid JSON", e);
+        }
+    }
+
+    /**
+     * Whether the body contains the text, compared as bytes in the body's charset (UTF-8 unless
+     * the Content-Type says otherwise)
+     */
+    public static boolean contains(Response response, String text) {
+        return indexOf(bytes(response), text.getBytes(charset(response))) >= 0;
+    }
+
+    /**
+     * Position of the first occurrence of fragment in body, or -1
+     */
+    public static int indexOf(byte[] body, byte[] fragment) {
+        if (fragment.length == 0) {
+            return 0;
+        }
+        byte first = fragment[0];
+        int last = body.length - fragment.length;
+        for (int i = 0; i <= last; i++) {
+            if (body[i] != first) {
+                continue;
+            }
+            int j = 1;
+            while (j < fragment.length && body[i + j] == fragment[j]) {
+                j++;
+            }
+            if (j == fragment.length) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Charset declared by the Content-Type, UTF-8 when there is none (the default for JSON)
+     */
+    public static Charset charset(Response response) {
+        String contentType = response.contentType();
+        int index = contentType == null ? -1 : contentType.toLowerCase(Locale.ROOT).indexOf("charset=");
+        if (index < 0) {
+            return StandardCharsets.UTF_8;
+        }
+        String name = contentType.substring(index + "charset=".length()).split(";", 2)[0].trim().replace("\"", "");
+        try {
+            return Charset.forName(name);
+        } catch (IllegalCharsetNameException | UnsupportedCharsetException e) {
+            return StandardCharsets.UTF_8;
+        }
+    }
+}
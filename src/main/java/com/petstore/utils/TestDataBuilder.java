@@ -1,43 +1,58 @@
 package com.petstore.utils;
 
+import com.petstore.models.Order;
+import com.petstore.models.Pet;
+import com.petstore.models.User;
+
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.Random;
 
 /**
- * Utility class for generating test data
+ * Utility class for generating test data.
+ * <p>
+ * Ids, usernames and emails come from {@link IdGenerator} and never repeat across threads or
+ * (with distinct id.node values) across forks; random values use per-thread generators, so the
+ * builder can be called from any number of threads without contention. Set id.seed, or call
+ * {@link #reseed(long)}, for reproducible data.
  */
 public class TestDataBuilder {
-    private static final Random random = new Random();
     private static final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final String[] PET_NAMES = {"Bella", "Max", "Charlie", "Luna", "Rocky", "Daisy", "Buddy", "Lucy"};
+    private static volatile IdGenerator ids = IdGenerator.fromConfig();
+
+    /**
+     * Restart generation from a seed, keeping the current node id
+     */
+    public static void reseed(long seed) {
+        ids = IdGenerator.seeded(ids.node(), seed);
+    }
 
     /**
-     * Generate a random pet ID
+     * Generate a unique pet ID
      */
     public static Long generatePetId() {
-        return Math.abs(random.nextLong()) % 1000000 + 1;
+        return ids.nextId();
     }
 
     /**
-     * Generate a random username
+     * Generate a unique username
      */
     public static String generateUsername() {
-        return "user_" + System.currentTimeMillis();
+        return "user_" + Long.toString(ids.nextId(), 36);
     }
 
     /**
-     * Generate a random email
+     * Generate a unique email
      */
     public static String generateEmail() {
-        return "test_" + System.currentTimeMillis() + "@petstore.com";
+        return "test_" + Long.toString(ids.nextId(), 36) + "@petstore.com";
     }
 
     /**
      * Generate a random pet name
      */
     public static String generatePetName() {
-        String[] names = {"Bella", "Max", "Charlie", "Luna", "Rocky", "Daisy", "Buddy", "Lucy"};
-        return names[random.nextInt(names.length)];
+        return PET_NAMES[ids.random().nextInt(PET_NAMES.length)];
     }
 
     /**
@@ -51,20 +66,44 @@ public class TestDataBuilder {
      * Generate a random password
      */
     public static String generatePassword() {
-        return "Pass@" + System.currentTimeMillis();
+        return "Pass@" + Long.toString(ids.random().nextLong(1L << 40, 1L << 50), 36);
     }
 
     /**
-     * Generate random order ID
+     * Generate a unique order ID
      */
     public static Long generateOrderId() {
-        return Math.abs(random.nextLong()) % 1000000 + 1;
+        return ids.nextId();
     }
 
     /**
      * Generate random quantity
      */
     public static Integer generateQuantity() {
-        return random.nextInt(100) + 1;
+        return ids.random().nextInt(100) + 1;
+    }
+
+    /**
+     * Build an available pet with a generated id and name
+     */
+    public static Pet buildPet() {
+        return new Pet(generatePetId(), generatePetName(), "available");
+    }
+
+    /**
+     * Build a placed order with a generated id, pet id and quantity
+     */
+    public static Order buildOrder() {
+        Order order = new Order(generatePetId(), generateQuantity());
+        order.setId(generateOrderId());
+        order.setStatus("placed");
+        return order;
+    }
+
+    /**
+     * Build a user with a generated username, email and password
+     */
+    public static User buildUser() {
+        return new User(generateUsername(), generateEmail(), generatePassword());
     }
 }
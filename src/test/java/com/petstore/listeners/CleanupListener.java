@@ -0,0 +1,31 @@
+package com.petstore.listeners;
+
+import org.testng.IClassListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestClass;
+import com.petstore.cleanup.CleanupRegistry;
+import com.petstore.config.ConfigManager;
+
+/**
+ * Deletes the pets, orders and users the tests created: after every test class with
+ * cleanup.scope=class (only safe when classes do not run in parallel), and always at the end of
+ * the suite for whatever is left, including deletes that failed in an earlier pass
+ */
+public class CleanupListener implements ISuiteListener, IClassListener {
+
+    @Override
+    public void onAfterClass(ITestClass testClass) {
+        if ("class".equals(ConfigManager.getInstance().getCleanupScope())) {
+            CleanupRegistry.getInstance().cleanUp();
+        }
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        CleanupRegistry registry = CleanupRegistry.getInstance();
+        if (registry.isEnabled()) {
+            registry.cleanUp();
+        }
+    }
+}
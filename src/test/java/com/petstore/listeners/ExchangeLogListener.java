@@ -0,0 +1,23 @@
+package com.petstore.listeners;
+
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+import com.petstore.logging.ExchangeLog;
+
+/**
+ * Writes the exchanges a test sent when it fails, for log.level=ON_FAILURE
+ */
+public class ExchangeLogListener implements ITestListener {
+    private static final String MARK = "exchangeLogMark";
+
+    @Override
+    public void onTestStart(ITestResult result) {
+        result.setAttribute(MARK, ExchangeLog.getInstance().mark());
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        Object mark = result.getAttribute(MARK);
+        ExchangeLog.getInstance().dumpSince(mark instanceof Long start ? start : 0L, result.getName());
+    }
+}
@@ -0,0 +1,40 @@
+package com.petstore.listeners;
+
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.petstore.cache.ResponseCache;
+import com.petstore.config.ConfigManager;
+import com.petstore.metrics.RequestMetrics;
+
+import java.nio.file.Path;
+
+/**
+ * Logs the per-endpoint latency table at the end of the suite and exports it to
+ * metrics.export.file, so tail latencies can be compared between builds. Response cache
+ * counters are logged too when the cache is enabled.
+ */
+public class MetricsListener implements ISuiteListener {
+    private static final Logger logger = LoggerFactory.getLogger(MetricsListener.class);
+
+    @Override
+    public void onStart(ISuite suite) {
+        RequestMetrics.getInstance().reset();
+        ResponseCache.getInstance().resetStats();
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        ResponseCache cache = ResponseCache.getInstance();
+        if (cache.isEnabled()) {
+            logger.info("Response cache for suite '{}': {}", suite.getName(), cache.stats());
+        }
+        RequestMetrics metrics = RequestMetrics.getInstance();
+        if (!metrics.isEnabled()) {
+            return;
+        }
+        logger.info("Request latencies for suite '{}':\n{}", suite.getName(), metrics.format());
+        metrics.exportJson(Path.of(ConfigManager.getInstance().getMetricsExportFile()));
+    }
+}
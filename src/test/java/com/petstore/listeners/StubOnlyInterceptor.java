@@ -0,0 +1,38 @@
+package com.petstore.listeners;
+
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ITestContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.petstore.config.ConfigManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Leaves out tests in the {@value #GROUP} group unless the suite runs against the in-process stub
+ * (petstore.stub=true), so bulk writes never reach a shared server behind base.url
+ */
+public class StubOnlyInterceptor implements IMethodInterceptor {
+    public static final String GROUP = "stub-only";
+    private static final Logger logger = LoggerFactory.getLogger(StubOnlyInterceptor.class);
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        if (Boolean.parseBoolean(ConfigManager.getInstance().getProperty("petstore.stub"))) {
+            return methods;
+        }
+        List<IMethodInstance> kept = new ArrayList<>(methods.size());
+        for (IMethodInstance method : methods) {
+            if (Arrays.asList(method.getMethod().getGroups()).contains(GROUP)) {
+                logger.info("Not running {}: it only runs against the stub (petstore.stub=true)",
+                        method.getMethod().getMethodName());
+            } else {
+                kept.add(method);
+            }
+        }
+        return kept;
+    }
+}
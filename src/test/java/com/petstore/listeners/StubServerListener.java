@@ -0,0 +1,34 @@
+package com.petstore.listeners;
+
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import com.petstore.config.ConfigManager;
+import com.petstore.stub.PetStoreStubServer;
+
+/**
+ * Starts the in-process PetStore stub for the suite when petstore.stub=true (set by -Dpetstore.stub=true
+ * or the local-stub profile) and points base.url at it, so no test traffic leaves the JVM
+ */
+public class StubServerListener implements ISuiteListener {
+    private PetStoreStubServer server;
+
+    @Override
+    public void onStart(ISuite suite) {
+        if (!Boolean.parseBoolean(ConfigManager.getInstance().getProperty("petstore.stub"))) {
+            return;
+        }
+        server = new PetStoreStubServer().start();
+        System.setProperty("base.url", server.getBaseUrl());
+        ConfigManager.getInstance().reload();
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        if (server != null) {
+            server.stop();
+            System.clearProperty("base.url");
+            ConfigManager.getInstance().reload();
+            server = null;
+        }
+    }
+}
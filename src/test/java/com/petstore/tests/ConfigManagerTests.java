@@ -0,0 +1,201 @@
+package com.petstore.tests;
+
+import org.testng.annotations.*;
+import com.petstore.api.HttpConnectionPool;
+import com.petstore.config.ConfigManager;
+import com.petstore.config.ConfigSnapshot;
+import com.petstore.logging.ExchangeLog;
+import com.petstore.logging.LogMode;
+import com.petstore.metrics.RequestMetrics;
+import com.petstore.utils.AssertionHelper;
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Test cases for layered configuration and hot reload
+ */
+@Feature("Pet Store")
+@Story("Configuration")
+public class ConfigManagerTests {
+    private final ConfigOverrides config = new ConfigOverrides();
+
+    @AfterMethod(alwaysRun = true)
+    public void restoreConfig() {
+        config.restore();
+    }
+
+    @Test(description = "Resolve configuration layers in order")
+    @Description("Test that the profile overrides config.properties, PETSTORE_ variables the profile and system properties everything")
+    public void testLayerPrecedence() {
+        // Arrange
+        Map<String, String> environment = Map.of(
+                "PETSTORE_CONFIG_PROFILE", "staging",
+                "PETSTORE_REQUEST_TIMEOUT", "7000",
+                "PETSTORE_RESPONSE_TIMEOUT", "8000",
+                "UNRELATED_RESPONSE_TIMEOUT", "1");
+        Properties system = new Properties();
+        system.setProperty("response.timeout", "9000");
+
+        // Act
+        ConfigSnapshot snapshot = ConfigManager.resolve(environment, system);
+
+        // Assert
+        AssertionHelper.assertFieldEquals("batch.max.size (config.properties)", snapshot.getBatchMaxSize(), 100);
+        AssertionHelper.assertFieldEquals("http.pool.max.total (profile)", snapshot.getPoolMaxTotal(), 20);
+        AssertionHelper.assertFieldEquals("retry.budget.ratio (profile)", snapshot.getRetryBudgetRatio(), 0.05);
+        AssertionHelper.assertFieldEquals("http.compression (profile)", snapshot.getHttpCompression(), List.of("gzip"));
+        AssertionHelper.assertFieldEquals("request.timeout (environment)", snapshot.getRequestTimeout(), 7000);
+        AssertionHelper.assertFieldEquals("response.timeout (system property)", snapshot.getResponseTimeout(), 9000);
+    }
+
+    @Test(description = "Reject a malformed value on reload")
+    @Description("Test that a reload with a malformed value fails and keeps the current snapshot")
+    public void testMalformedValueKeepsSnapshot() {
+        // Arrange
+        ConfigManager manager = ConfigManager.getInstance();
+        ConfigSnapshot before = manager.snapshot();
+
+        // Act
+        RuntimeException failure = reloadWith("request.timeout", "soon");
+
+        // Assert
+        AssertionHelper.assertFieldEquals("reload rejected", failure != null, true);
+        AssertionHelper.assertFieldEquals("snapshot kept", manager.snapshot() == before, true);
+        AssertionHelper.assertFieldEquals("request.timeout", manager.getRequestTimeout(), before.getRequestTimeout());
+    }
+
+    @Test(description = "Reject an unknown log level on reload")
+    @Description("Test that log.level is validated with the snapshot, so an unknown level keeps the current one instead of failing a reload listener")
+    public void testUnknownLogLevelKeepsSnapshot() {
+        // Arrange
+        ConfigManager manager = ConfigManager.getInstance();
+        ConfigSnapshot before = manager.snapshot();
+
+        // Act
+        RuntimeException failure = reloadWith("log.level", "VERBOSE");
+
+        // Assert
+        AssertionHelper.assertFieldEquals("reload rejected", failure != null, true);
+        AssertionHelper.assertFieldEquals("snapshot kept", manager.snapshot() == before, true);
+        AssertionHelper.assertFieldEquals("log mode", ExchangeLog.getInstance().getMode(), before.getLogMode());
+    }
+
+    @Test(description = "Reject malformed throttle settings on reload")
+    @Description("Test that throttle.* values are validated with the snapshot, so a bad rate or burst fails the reload instead of every request")
+    public void testMalformedThrottleKeepsSnapshot() {
+        // Arrange
+        ConfigManager manager = ConfigManager.getInstance();
+        ConfigSnapshot before = manager.snapshot();
+
+        // Act
+        RuntimeException badRate = reloadWith("throttle.pet.rate", "abc");
+        RuntimeException badBurst = reloadWith("throttle.burst", "0");
+        RuntimeException badConcurrency = reloadWith("throttle.store.concurrency", "-1");
+
+        // Assert
+        AssertionHelper.assertFieldEquals("throttle.pet.rate rejected", badRate != null, true);
+        AssertionHelper.assertFieldEquals("throttle.burst rejected", badBurst != null, true);
+        AssertionHelper.assertFieldEquals("throttle.store.concurrency rejected", badConcurrency != null, true);
+        AssertionHelper.assertFieldEquals("snapshot kept", manager.snapshot() == before, true);
+        AssertionHelper.assertFieldEquals("pet rate", manager.getThrottleRate("pet"), before.getThrottleRate("pet"));
+    }
+
+    @Test(description = "Layer per-group throttle settings over the defaults")
+    @Description("Test that throttle.<group>.* overrides throttle.* for that group only")
+    public void testGroupThrottleOverridesDefaults() {
+        // Act
+        config.set("throttle.concurrency", "4");
+        config.set("throttle.pet.concurrency", "1");
+        config.set("throttle.pet.rate", "5");
+
+        // Assert
+        ConfigManager manager = ConfigManager.getInstance();
+        AssertionHelper.assertFieldEquals("pet concurrency", manager.getThrottleConcurrency("pet"), 1);
+        AssertionHelper.assertFieldEquals("pet rate", manager.getThrottleRate("pet"), 5.0);
+        AssertionHelper.assertFieldEquals("pet burst (default)", manager.getThrottleBurst("pet"), 10);
+        AssertionHelper.assertFieldEquals("store concurrency (default)", manager.getThrottleConcurrency("store"), 4);
+        AssertionHelper.assertFieldEquals("store rate (default)", manager.getThrottleRate("store"), 0.0);
+    }
+
+    @Test(description = "Notify reload listeners only on change")
+    @Description("Test that reload listeners run when a value changed and not when nothing did")
+    public void testReloadListenersOnlyOnChange() {
+        // Arrange
+        ConfigManager manager = ConfigManager.getInstance();
+        AtomicInteger notified = new AtomicInteger();
+        Consumer<ConfigSnapshot> listener = snapshot -> notified.incrementAndGet();
+        manager.addReloadListener(listener);
+
+        try {
+            // Act
+            manager.reload();
+            int unchanged = notified.get();
+            config.set("log.sample.rate", "7");
+            int changed = notified.get();
+            manager.reload();
+            int reloadedAgain = notified.get();
+
+            // Assert
+            AssertionHelper.assertFieldEquals("notifications without change", unchanged, 0);
+            AssertionHelper.assertFieldEquals("notifications after a change", changed, 1);
+            AssertionHelper.assertFieldEquals("notifications after an unchanged reload", reloadedAgain, 1);
+        } finally {
+            manager.removeReloadListener(listener);
+        }
+    }
+
+    @Test(description = "Apply pool, logging and metrics settings on reload")
+    @Description("Test that the connection pool, exchange log and request metrics follow a configuration reload")
+    public void testReloadReconfiguresPoolLogAndMetrics() {
+        // Arrange
+        HttpConnectionPool pool = HttpConnectionPool.getInstance();
+        ExchangeLog exchangeLog = ExchangeLog.getInstance();
+        RequestMetrics metrics = RequestMetrics.getInstance();
+        int maxTotal = pool.getStats().getMax();
+
+        // Act
+        config.set("http.pool.max.total", String.valueOf(maxTotal + 1));
+        config.set("log.level", "SAMPLED");
+        config.set("metrics.enabled", String.valueOf(!metrics.isEnabled()));
+        boolean metricsEnabled = metrics.isEnabled();
+
+        // Assert
+        AssertionHelper.assertFieldEquals("pool max total", pool.getStats().getMax(), maxTotal + 1);
+        AssertionHelper.assertFieldEquals("log mode", exchangeLog.getMode(), LogMode.SAMPLED);
+        AssertionHelper.assertFieldEquals("metrics enabled", metricsEnabled, ConfigManager.getInstance().isMetricsEnabled());
+        config.restore();
+        AssertionHelper.assertFieldEquals("pool max total after restore", pool.getStats().getMax(), maxTotal);
+    }
+
+    @Test(description = "Fall back to the default for a blank metrics switch")
+    @Description("Test that a blank metrics.enabled, e.g. an empty environment variable, keeps metrics on")
+    public void testBlankMetricsEnabledUsesDefault() {
+        // Act
+        config.set("metrics.enabled", " ");
+
+        // Assert
+        AssertionHelper.assertFieldEquals("metrics enabled", ConfigManager.getInstance().isMetricsEnabled(), true);
+    }
+
+    /**
+     * Reloads with one malformed system property and removes it again; returns the rejection, or null
+     */
+    private static RuntimeException reloadWith(String key, String value) {
+        System.setProperty(key, value);
+        try {
+            ConfigManager.getInstance().reload();
+            return null;
+        } catch (IllegalArgumentException e) {
+            return e;
+        } finally {
+            System.clearProperty(key);
+        }
+    }
+}
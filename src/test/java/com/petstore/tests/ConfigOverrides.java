@@ -0,0 +1,29 @@
+package com.petstore.tests;
+
+import com.petstore.config.ConfigManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Layers settings over the suite configuration as system properties and reloads it; restore()
+ * removes them again, typically from an @AfterMethod
+ */
+class ConfigOverrides {
+    private final List<String> keys = new ArrayList<>();
+
+    void set(String key, String value) {
+        System.setProperty(key, value);
+        keys.add(key);
+        ConfigManager.getInstance().reload();
+    }
+
+    void restore() {
+        if (keys.isEmpty()) {
+            return;
+        }
+        keys.forEach(System::clearProperty);
+        keys.clear();
+        ConfigManager.getInstance().reload();
+    }
+}
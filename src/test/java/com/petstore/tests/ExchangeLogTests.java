@@ -0,0 +1,69 @@
+package com.petstore.tests;
+
+import org.testng.annotations.*;
+import com.petstore.api.PetApi;
+import com.petstore.logging.ExchangeLog;
+import com.petstore.logging.LogMode;
+import com.petstore.models.Pet;
+import com.petstore.utils.AssertionHelper;
+import com.petstore.utils.TestDataBuilder;
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+
+/**
+ * Test cases for the request/response exchange log
+ */
+@Feature("Pet Store")
+@Story("Exchange Log")
+public class ExchangeLogTests {
+    private final ConfigOverrides config = new ConfigOverrides();
+    private PetApi petApi;
+
+    @BeforeClass
+    public void setup() {
+        petApi = new PetApi();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void restoreConfig() {
+        config.restore();
+    }
+
+    @Test(description = "Dump only the failed test's exchanges")
+    @Description("Test that a dump holds the exchanges the calling thread sent since its mark, including async ones, and not those of other threads")
+    public void testDumpSinceIsPerThread() throws InterruptedException {
+        // Arrange
+        config.set("log.level", "ON_FAILURE");
+        config.set("log.buffer.size", "64");
+        Pet pet = TestDataBuilder.buildPet();
+        petApi.addPet(pet);
+        ExchangeLog exchangeLog = ExchangeLog.getInstance();
+        long mark = exchangeLog.mark();
+        Thread otherTest = new Thread(() -> {
+            for (int i = 0; i < 3; i++) {
+                petApi.getPetById(pet.getId());
+            }
+        });
+
+        // Act
+        otherTest.start();
+        petApi.getPetById(pet.getId());
+        petApi.getPetByIdAsync(pet.getId()).join();
+        otherTest.join();
+        int dumped = exchangeLog.dumpSince(mark, "testDumpSinceIsPerThread");
+
+        // Assert
+        AssertionHelper.assertFieldEquals("exchanges dumped", dumped, 2);
+    }
+
+    @Test(description = "Default to ON_FAILURE logging")
+    @Description("Test that an unset log.level parses to the documented default and SLF4J names keep their meaning")
+    public void testLogModeDefault() {
+        // Act & Assert
+        AssertionHelper.assertFieldEquals("blank", LogMode.parse(" "), LogMode.ON_FAILURE);
+        AssertionHelper.assertFieldEquals("unset", LogMode.parse(null), LogMode.ON_FAILURE);
+        AssertionHelper.assertFieldEquals("WARN", LogMode.parse("WARN"), LogMode.ON_FAILURE);
+        AssertionHelper.assertFieldEquals("INFO", LogMode.parse("INFO"), LogMode.FULL);
+    }
+}
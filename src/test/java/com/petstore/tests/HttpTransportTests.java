@@ -0,0 +1,144 @@
+package com.petstore.tests;
+
+import io.restassured.response.Response;
+import org.testng.annotations.*;
+import com.petstore.api.PetApi;
+import com.petstore.assertions.ResponseExpectations;
+import com.petstore.models.Pet;
+import com.petstore.utils.AssertionHelper;
+import com.petstore.utils.TestDataBuilder;
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+
+/**
+ * Test cases for the HTTP transports behind ApiClient, run against the in-process stub because
+ * they assert what it guarantees (gzip above 1 KiB); each test layers its settings over the suite
+ * configuration and restores it afterwards
+ */
+@Feature("Pet Store")
+@Story("HTTP Transport")
+public class HttpTransportTests {
+    private final ConfigOverrides config = new ConfigOverrides();
+    private final LocalStub stub = new LocalStub();
+    private PetApi petApi;
+
+    @BeforeClass
+    public void setup() {
+        stub.start();
+        petApi = new PetApi();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopStub() {
+        stub.stop();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void restoreConfig() {
+        config.restore();
+    }
+
+    @Test(description = "Measure response time over the multiplexed transport")
+    @Description("Test that responses adapted from the JDK HTTP client report their response time")
+    public void testResponseTimeOverHttp2() {
+        // Arrange
+        config.set("http.version", "HTTP_2");
+        Pet pet = TestDataBuilder.buildPet();
+        petApi.addPet(pet);
+
+        // Act
+        Response response = petApi.getPetById(pet.getId());
+
+        // Assert
+        AssertionHelper.assertStatusCode(response, 200);
+        AssertionHelper.assertFieldEquals("response time measured", response.getTime() >= 0, true);
+        AssertionHelper.assertResponseTime(response, 5000);
+        AssertionHelper.assertResponse(response, ResponseExpectations.builder().maxResponseTime(5000).build());
+    }
+
+    @Test(description = "Map multiplexed responses with the shared mapper")
+    @Description("Test that responses adapted from the JDK HTTP client map bodies with the shared Jackson mapper, which ignores unknown properties")
+    public void testSharedMapperOverHttp2() {
+        // Arrange
+        config.set("http.version", "HTTP_2");
+        Pet pet = TestDataBuilder.buildPet();
+        petApi.addPet(pet);
+
+        // Act
+        Response response = petApi.getPetById(pet.getId());
+        PetName name = response.as(PetName.class);
+
+        // Assert
+        AssertionHelper.assertFieldEquals("name", name.name, pet.getName());
+    }
+
+    @Test(description = "Receive a compressed response")
+    @Description("Test that a large body is sent gzip encoded, keeps its Content-Encoding header and is decoded before it is asserted")
+    public void testCompressedResponse() {
+        // Arrange
+        config.set("http.compression", "gzip,deflate");
+        String status = addPetsWithUniqueStatus();
+
+        // Act
+        Response response = petApi.findPetsByStatus(status);
+
+        // Assert
+        AssertionHelper.assertStatusCode(response, 200);
+        AssertionHelper.assertHeaderExists(response, "Content-Encoding");
+        AssertionHelper.assertHeaderValue(response, "Content-Encoding", "gzip");
+        AssertionHelper.assertResponseBodyContains(response, "\"status\":\"" + status + "\"");
+    }
+
+    @Test(description = "Receive a compressed response over the multiplexed transport")
+    @Description("Test that the JDK HTTP client offers gzip too and decodes the body while keeping Content-Encoding")
+    public void testCompressedResponseOverHttp2() {
+        // Arrange
+        config.set("http.version", "HTTP_2");
+        config.set("http.compression", "gzip,deflate");
+        String status = addPetsWithUniqueStatus();
+
+        // Act
+        Response response = petApi.findPetsByStatus(status);
+
+        // Assert
+        AssertionHelper.assertStatusCode(response, 200);
+        AssertionHelper.assertHeaderExists(response, "Content-Encoding");
+        AssertionHelper.assertHeaderValue(response, "Content-Encoding", "gzip");
+        AssertionHelper.assertResponseBodyContains(response, "\"status\":\"" + status + "\"");
+    }
+
+    @Test(description = "Turn compression off")
+    @Description("Test that http.compression=none sends no Accept-Encoding, so even a large body arrives uncompressed")
+    public void testCompressionDisabled() {
+        // Arrange
+        config.set("http.compression", "none");
+        String status = addPetsWithUniqueStatus();
+
+        // Act
+        Response response = petApi.findPetsByStatus(status);
+
+        // Assert
+        AssertionHelper.assertStatusCode(response, 200);
+        AssertionHelper.assertFieldEquals("Content-Encoding", response.getHeader("Content-Encoding"), null);
+        AssertionHelper.assertResponseBodyContains(response, "\"status\":\"" + status + "\"");
+    }
+
+    /**
+     * Adds enough pets under a fresh status for their findByStatus body to be worth compressing
+     */
+    private String addPetsWithUniqueStatus() {
+        String status = "compressed-" + TestDataBuilder.generatePetId();
+        for (int i = 0; i < 20; i++) {
+            petApi.addPet(new Pet(TestDataBuilder.generatePetId(), TestDataBuilder.generatePetName(), status));
+        }
+        return status;
+    }
+
+    /**
+     * Reads only the name of a pet; RestAssured's default mapper rejects the other properties
+     */
+    public static class PetName {
+        public String name;
+    }
+}
@@ -0,0 +1,38 @@
+package com.petstore.tests;
+
+import com.petstore.config.ConfigManager;
+import com.petstore.stub.PetStoreStubServer;
+
+/**
+ * In-process stub for test classes that assert behaviour only the stub guarantees (compression,
+ * ETags); start() points base.url at it unless the whole suite already runs against the stub
+ * (petstore.stub=true), and stop() restores the previous base.url
+ */
+class LocalStub {
+    private PetStoreStubServer server;
+    private String previousBaseUrl;
+
+    void start() {
+        if (Boolean.parseBoolean(ConfigManager.getInstance().getProperty("petstore.stub"))) {
+            return;
+        }
+        server = new PetStoreStubServer().start();
+        previousBaseUrl = System.getProperty("base.url");
+        System.setProperty("base.url", server.getBaseUrl());
+        ConfigManager.getInstance().reload();
+    }
+
+    void stop() {
+        if (server == null) {
+            return;
+        }
+        server.stop();
+        server = null;
+        if (previousBaseUrl == null) {
+            System.clearProperty("base.url");
+        } else {
+            System.setProperty("base.url", previousBaseUrl);
+        }
+        ConfigManager.getInstance().reload();
+    }
+}
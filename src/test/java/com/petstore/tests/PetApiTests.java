@@ -1,8 +1,13 @@
 package com.petstore.tests;
 
+import io.restassured.builder.ResponseBuilder;
 import io.restassured.response.Response;
 import org.testng.annotations.*;
 import com.petstore.api.PetApi;
+import com.petstore.assertions.ResponseExpectations;
+import com.petstore.batch.BatchWriter;
+import com.petstore.metrics.LatencySummary;
+import com.petstore.metrics.RequestMetrics;
 import com.petstore.models.Pet;
 import com.petstore.utils.AssertionHelper;
 import com.petstore.utils.TestDataBuilder;
@@ -11,12 +16,26 @@ import io.qameta.allure.Description;
 import io.qameta.allure.Feature;
 import io.qameta.allure.Story;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
 /**
  * Test cases for Pet API endpoints
  */
 @Feature("Pet Store")
 @Story("Pet Management")
 public class PetApiTests {
+    private static final ResponseExpectations AVAILABLE_PET = ResponseExpectations.builder()
+            .status(200)
+            .header("Content-Type", "application/json")
+            .jsonFieldPresent("id")
+            .jsonField("status", "available")
+            .bodyContains("\"name\"")
+            .build();
+
     private PetApi petApi;
 
     @BeforeClass
@@ -42,6 +61,23 @@ public class PetApiTests {
         AssertionHelper.assertJsonPath(response, "status", "available");
     }
 
+    @Test(description = "Add a new pet and read it back as a model")
+    @Description("Test adding a new pet through the typed method")
+    public void testAddPetAs() {
+        // Arrange
+        Pet pet = new Pet();
+        pet.setId(TestDataBuilder.generatePetId());
+        pet.setName(TestDataBuilder.generatePetName());
+        pet.setStatus("available");
+
+        // Act
+        Pet created = petApi.addPetAs(pet);
+
+        // Assert
+        AssertionHelper.assertFieldEquals("name", created.getName(), pet.getName());
+        AssertionHelper.assertFieldEquals("status", created.getStatus(), "available");
+    }
+
     @Test(description = "Get pet by ID")
     @Description("Test retrieving a pet by its ID")
     public void testGetPetById() {
@@ -61,6 +97,48 @@ public class PetApiTests {
         AssertionHelper.assertResponseContainsKey(response, "id");
     }
 
+    @Test(description = "Get pets by ID against compiled expectations")
+    @Description("Test checking several pets against one expectation set declared once for the class")
+    public void testGetPetsByIdWithExpectations() {
+        // Arrange
+        List<Pet> pets = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Pet pet = TestDataBuilder.buildPet();
+            petApi.addPet(pet);
+            pets.add(pet);
+        }
+
+        for (Pet pet : pets) {
+            // Act
+            Response response = petApi.getPetById(pet.getId());
+
+            // Assert
+            AssertionHelper.assertResponse(response, AVAILABLE_PET);
+            AssertionHelper.assertJsonPath(response, "id", pet.getId());
+        }
+    }
+
+    @Test(description = "Reject malformed JSON against compiled expectations")
+    @Description("Test that a body with trailing content, an unknown literal or a bad number fails the expectations")
+    public void testExpectationsRejectMalformedJson() {
+        // Arrange
+        ResponseExpectations idPresent = ResponseExpectations.builder().jsonFieldPresent("id").build();
+        List<String> bodies = List.of("{\"id\":1}<html>", "{\"id\":undefined}", "{\"id\":01}", "{\"id\":1.}",
+                "{\"id\":tru}", "{\"id\":1", "{\"id\":\"\\x\"}");
+
+        for (String body : bodies) {
+            // Act
+            Response response = new ResponseBuilder().setStatusCode(200).setContentType("application/json")
+                    .setBody(body).build();
+
+            // Assert
+            AssertionHelper.assertFieldEquals("matches " + body, idPresent.matches(response), false);
+        }
+        Response wellFormed = new ResponseBuilder().setStatusCode(200).setContentType("application/json")
+                .setBody("{\"id\":-1.5e+3, \"tags\":[true,false,null,\"\\u00e9\"]} ").build();
+        AssertionHelper.assertFieldEquals("matches well-formed body", idPresent.matches(wellFormed), true);
+    }
+
     @Test(description = "Update an existing pet")
     @Description("Test updating pet information")
     public void testUpdatePet() {
@@ -83,6 +161,28 @@ public class PetApiTests {
         AssertionHelper.assertJsonPath(response, "name", "NewName");
     }
 
+    @Test(description = "Update an existing pet and read it back as a model")
+    @Description("Test updating pet information through the typed method")
+    public void testUpdatePetAs() {
+        // Arrange
+        Pet pet = new Pet();
+        pet.setId(TestDataBuilder.generatePetId());
+        pet.setName("UpdatedName");
+        pet.setStatus("sold");
+
+        petApi.addPet(pet);
+
+        pet.setName("NewName");
+        pet.setStatus("pending");
+
+        // Act
+        Pet updated = petApi.updatePetAs(pet);
+
+        // Assert
+        AssertionHelper.assertFieldEquals("name", updated.getName(), "NewName");
+        AssertionHelper.assertFieldEquals("status", updated.getStatus(), "pending");
+    }
+
     @Test(description = "Find pets by status")
     @Description("Test finding pets filtered by status")
     public void testFindPetsByStatus() {
@@ -94,6 +194,70 @@ public class PetApiTests {
         AssertionHelper.assertResponseSuccess(response);
     }
 
+    @Test(description = "Find pets by status as models")
+    @Description("Test finding pets filtered by status through the typed method")
+    public void testFindPetsByStatusAs() {
+        // Act
+        List<Pet> pets = petApi.findPetsByStatusAs("available");
+
+        // Assert
+        AssertionHelper.assertAllMatch(pets, pet -> "available".equals(pet.getStatus()), "have status 'available'");
+    }
+
+    @Test(description = "Assert fields collected across a findByStatus array")
+    @Description("Test that a key path applied to an array response collects the field of every element, as GPath does")
+    public void testFindPetsByStatusCollectsFields() {
+        // Arrange
+        String status = "quarantined-" + TestDataBuilder.generatePetId();
+        Pet pet = new Pet(TestDataBuilder.generatePetId(), TestDataBuilder.generatePetName(), status);
+        petApi.addPet(pet);
+
+        // Act
+        Response response = petApi.findPetsByStatus(status);
+
+        // Assert
+        AssertionHelper.assertResponseContainsKey(response, "id");
+        AssertionHelper.assertJsonPath(response, "name", List.of(pet.getName()));
+        AssertionHelper.assertJsonPath(response, "[0].name", pet.getName());
+    }
+
+    @Test(description = "Stream pets by status")
+    @Description("Test finding a pet in the streamed findByStatus response and stopping early")
+    public void testStreamPetsByStatus() {
+        // Arrange
+        Long petId = TestDataBuilder.generatePetId();
+        petApi.addPet(new Pet(petId, TestDataBuilder.generatePetName(), "pending"));
+
+        // Act
+        boolean found;
+        try (Stream<Pet> pets = petApi.streamPetsByStatus("pending")) {
+            found = pets.anyMatch(pet -> petId.equals(pet.getId()));
+        }
+
+        // Assert
+        AssertionHelper.assertFieldEquals("found", found, true);
+    }
+
+    @Test(description = "Record a streamed request in the caller's scope")
+    @Description("Test that closing a fully read findByStatus stream records one successful request in the open metrics scope")
+    public void testStreamPetsByStatusRecordedInScope() {
+        // Arrange
+        petApi.addPet(new Pet(TestDataBuilder.generatePetId(), TestDataBuilder.generatePetName(), "pending"));
+
+        // Act
+        LatencySummary streamed;
+        try (RequestMetrics.Scope scope = RequestMetrics.getInstance().openScope()) {
+            try (Stream<Pet> pets = petApi.streamPetsByStatus("pending")) {
+                pets.forEach(pet -> { });
+            }
+            streamed = scope.getSummary("GET /pet/findByStatus");
+        }
+
+        // Assert
+        AssertionHelper.assertFieldEquals("requests in scope", streamed == null ? 0L : streamed.count(), 1L);
+        AssertionHelper.assertFieldEquals("errors in scope", streamed.errors(), 0L);
+    }
+
     @Test(description = "Delete a pet")
     @Description("Test deleting a pet from the store")
     public void testDeletePet() {
@@ -121,4 +285,94 @@ public class PetApiTests {
         // Assert - PetStore API returns 200 but with null id
         AssertionHelper.assertStatusCode(response, 200);
     }
+
+    @Test(description = "Add pets concurrently with the async API")
+    @Description("Test keeping many addPet requests in flight from one thread")
+    public void testAddPetsAsync() {
+        // Arrange
+        List<Pet> pets = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            pets.add(new Pet(TestDataBuilder.generatePetId(), TestDataBuilder.generatePetName(), "available"));
+        }
+
+        // Act
+        List<CompletableFuture<Response>> responses = pets.stream()
+                .map(petApi::addPetAsync)
+                .collect(Collectors.toList());
+
+        // Assert
+        for (int i = 0; i < pets.size(); i++) {
+            Response response = responses.get(i).join();
+            AssertionHelper.assertStatusCode(response, 200);
+            AssertionHelper.assertJsonPath(response, "name", pets.get(i).getName());
+        }
+    }
+
+    @Test(description = "Add and delete pets through the batch writer", groups = "stub-only")
+    @Description("Test micro-batched fire-and-forget writes returning one future per pet")
+    public void testBatchedAddAndDeletePets() {
+        // Arrange
+        List<Pet> pets = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            pets.add(TestDataBuilder.buildPet());
+        }
+
+        // Act
+        List<CompletableFuture<Response>> added = new ArrayList<>();
+        List<CompletableFuture<Response>> deleted = new ArrayList<>();
+        try (BatchWriter writer = new BatchWriter()) {
+            pets.forEach(pet -> added.add(writer.addPet(pet)));
+            writer.awaitCompletion();
+            pets.forEach(pet -> deleted.add(writer.deletePet(pet.getId())));
+        }
+
+        // Assert
+        for (int i = 0; i < pets.size(); i++) {
+            AssertionHelper.assertJsonPath(added.get(i).join(), "name", pets.get(i).getName());
+            AssertionHelper.assertStatusCode(deleted.get(i).join(), 200);
+        }
+    }
+
+    @Test(description = "Get pet by ID latency and error-rate SLO")
+    @Description("Test p99 latency and error rate of repeated pet lookups against recorded samples")
+    public void testGetPetByIdSlo() {
+        // Arrange
+        Long petId = TestDataBuilder.generatePetId();
+        petApi.addPet(new Pet(petId, TestDataBuilder.generatePetName(), "available"));
+
+        // Act
+        try (RequestMetrics.Scope scope = RequestMetrics.getInstance().openScope()) {
+            for (int i = 0; i < 50; i++) {
+                petApi.getPetById(petId);
+            }
+
+            // Assert
+            AssertionHelper.assertPercentileLessThan(scope, "GET /pet/{id}", 99, 3000);
+            AssertionHelper.assertErrorRateBelow(scope, "GET /pet/{id}", 0.02);
+        }
+    }
+
+    @Test(description = "Collect only the test's own requests in a metrics scope")
+    @Description("Test that a metrics scope records the requests of the thread that opened it, including its async requests, and not those of other threads")
+    public void testMetricsScopeIsPerThread() throws Exception {
+        // Arrange
+        Long petId = TestDataBuilder.generatePetId();
+        petApi.addPet(new Pet(petId, TestDataBuilder.generatePetName(), "available"));
+        Thread otherTest = new Thread(() -> {
+            for (int i = 0; i < 3; i++) {
+                petApi.getPetById(petId);
+            }
+        });
+
+        // Act
+        try (RequestMetrics.Scope scope = RequestMetrics.getInstance().openScope()) {
+            otherTest.start();
+            petApi.getPetById(petId);
+            petApi.getPetByIdAsync(petId).join();
+            otherTest.join();
+
+            // Assert
+            AssertionHelper.assertFieldEquals("requests in scope", scope.getSummary("GET /pet/{id}").count(), 2L);
+        }
+    }
 }
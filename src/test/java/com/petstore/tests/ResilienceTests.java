@@ -0,0 +1,234 @@
+package com.petstore.tests;
+
+import io.restassured.RestAssured;
+import io.restassured.response.Response;
+import org.testng.annotations.*;
+import com.petstore.api.ApiClient;
+import com.petstore.api.PetApi;
+import com.petstore.api.StoreApi;
+import com.petstore.api.UserApi;
+import com.petstore.config.ConfigManager;
+import com.petstore.metrics.LatencyHistogram;
+import com.petstore.metrics.LatencySummary;
+import com.petstore.metrics.RequestMetrics;
+import com.petstore.models.Pet;
+import com.petstore.retry.RetryPolicy;
+import com.petstore.seed.DataSeeder;
+import com.petstore.seed.SeedReport;
+import com.petstore.throttle.ConcurrencyLimiter;
+import com.petstore.throttle.RequestGovernor;
+import com.petstore.throttle.TokenBucket;
+import com.petstore.utils.AssertionHelper;
+import com.petstore.utils.TestDataBuilder;
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Test cases for retries and throttling; each test layers its settings over the suite configuration
+ * as system properties and restores it afterwards
+ */
+@Feature("Pet Store")
+@Story("Resilience")
+public class ResilienceTests {
+    private final ConfigOverrides config = new ConfigOverrides();
+    private PetApi petApi;
+
+    @BeforeClass
+    public void setup() {
+        petApi = new PetApi();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void restoreConfig() {
+        config.restore();
+    }
+
+    @Test(description = "Retry a refused connection")
+    @Description("Test that a connection error RestAssured throws as a checked exception is retried, recorded and releases its concurrency slot")
+    public void testRetryRefusedConnection() throws Exception {
+        // Arrange
+        config.set("retry.max.attempts", "2");
+        config.set("retry.backoff.base", "1");
+        config.set("throttle.pet.concurrency", "1");
+        String refused = "http://127.0.0.1:" + closedPort() + "/v2/pet/1";
+        long retriesBefore = RetryPolicy.getInstance().getRetries();
+
+        // Act
+        Throwable failure = null;
+        try (RequestMetrics.Scope scope = RequestMetrics.getInstance().openScope()) {
+            try {
+                new DirectClient().send("GET", "/pet/1", () -> RestAssured.given().get(refused));
+            } catch (UncheckedIOException e) {
+                failure = e;
+            }
+            LatencyHistogram retried = scope.getHistogram("RETRY GET /pet/{id}");
+
+            // Assert
+            AssertionHelper.assertFieldEquals("failed with the connection error",
+                    failure != null && failure.getCause() instanceof ConnectException, true);
+            AssertionHelper.assertFieldEquals("retries", RetryPolicy.getInstance().getRetries() - retriesBefore, 1L);
+            AssertionHelper.assertFieldEquals("retried attempts recorded",
+                    retried == null ? 0L : retried.getTotalCount(), 1L);
+        }
+        // With a leaked slot this request would wait forever
+        Response next = CompletableFuture.supplyAsync(() -> petApi.findPetsByStatus("available"))
+                .get(10, TimeUnit.SECONDS);
+        AssertionHelper.assertStatusCode(next, 200);
+    }
+
+    @Test(description = "Seed against a refused connection")
+    @Description("Test that seeding counts refused batches as failed and stops retrying when the retry budget is spent")
+    public void testSeedRefusedConnectionWithinRetryBudget() throws Exception {
+        // Arrange
+        config.set("retry.budget.ratio", "0");
+        config.set("retry.budget.max", "1");
+        String refused = "http://127.0.0.1:" + closedPort() + "/v2/pet";
+        PetApi refusingApi = new PetApi() {
+            @Override
+            public Response addPet(Pet pet) {
+                return RestAssured.given().body(pet).post(refused);
+            }
+        };
+        DataSeeder seeder = new DataSeeder(refusingApi, new StoreApi(), new UserApi()).concurrency(1).maxAttempts(3);
+
+        // Act
+        SeedReport report = seeder.seedPets(2, TestDataBuilder::buildPet);
+
+        // Assert
+        AssertionHelper.assertFieldEquals("seeded", report.seeded(), 0L);
+        AssertionHelper.assertFieldEquals("failed", report.failed(), 2L);
+        AssertionHelper.assertFieldEquals("retries", report.retries(), 1L);
+    }
+
+    @Test(description = "Queue requests beyond the concurrency limit")
+    @Description("Test that with throttle.pet.concurrency=1 a request waits for the slot held by another and the wait is recorded as QUEUE /pet")
+    public void testQueueDelayRecorded() throws Exception {
+        // Arrange
+        config.set("throttle.pet.concurrency", "1");
+        CountDownLatch holding = new CountDownLatch(1);
+        CompletableFuture<Response> holder = CompletableFuture.supplyAsync(() ->
+                new DirectClient().send("GET", "/pet/findByStatus", () -> {
+                    holding.countDown();
+                    pause(300);
+                    return RestAssured.given().queryParam("status", "available")
+                            .get(ConfigManager.getInstance().getBaseUrl() + "/pet/findByStatus");
+                }));
+        holding.await(10, TimeUnit.SECONDS);
+
+        // Act
+        LatencySummary queued;
+        int limit = RequestGovernor.getInstance().getConcurrencyLimit("pet");
+        try (RequestMetrics.Scope scope = RequestMetrics.getInstance().openScope()) {
+            Response response = petApi.findPetsByStatus("available");
+            AssertionHelper.assertStatusCode(response, 200);
+            queued = scope.getSummary("QUEUE /pet");
+        }
+        holder.get(10, TimeUnit.SECONDS);
+
+        // Assert
+        AssertionHelper.assertFieldEquals("concurrency limit", limit, 1);
+        AssertionHelper.assertFieldEquals("queued requests", queued.count(), 1L);
+        AssertionHelper.assertFieldEquals("waited for the held slot", queued.max() >= 150, true);
+    }
+
+    @Test(description = "Pace requests with a token bucket")
+    @Description("Test that a token bucket lets a burst through and then spaces requests at the configured rate")
+    public void testTokenBucketBurstThenRate() {
+        // Arrange
+        TokenBucket bucket = new TokenBucket(10, 2);
+
+        // Act
+        long first = bucket.reserve();
+        long second = bucket.reserve();
+        long third = bucket.reserve();
+        long fourth = bucket.reserve();
+
+        // Assert
+        AssertionHelper.assertFieldEquals("first wait", first, 0L);
+        AssertionHelper.assertFieldEquals("second wait (burst)", second, 0L);
+        AssertionHelper.assertFieldEquals("third waits about one interval",
+                third > TimeUnit.MILLISECONDS.toNanos(50) && third <= TimeUnit.MILLISECONDS.toNanos(100), true);
+        AssertionHelper.assertFieldEquals("fourth waits one more interval",
+                fourth - third > TimeUnit.MILLISECONDS.toNanos(90), true);
+    }
+
+    @Test(description = "Adapt the concurrency limit")
+    @Description("Test that an adaptive limit is cut on overload and slow responses and grows back to the maximum")
+    public void testAdaptiveConcurrencyLimit() {
+        // Arrange
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(10, true, TimeUnit.MILLISECONDS.toNanos(100));
+
+        // Act
+        limiter.acquire().join();
+        limiter.release(true, 0);
+        int afterOverload = limiter.getLimit();
+        limiter.acquire().join();
+        limiter.release(false, TimeUnit.MILLISECONDS.toNanos(500));
+        int afterSlowResponse = limiter.getLimit();
+        for (int i = 0; i < 200; i++) {
+            limiter.acquire().join();
+            limiter.release(false, 0);
+        }
+        int afterRecovery = limiter.getLimit();
+
+        // Assert
+        AssertionHelper.assertFieldEquals("limit after overload", afterOverload, 7);
+        AssertionHelper.assertFieldEquals("limit after a slow response", afterSlowResponse, 4);
+        AssertionHelper.assertFieldEquals("limit after recovery", afterRecovery, 10);
+        AssertionHelper.assertFieldEquals("in flight", limiter.getInFlight(), 0);
+    }
+
+    @Test(description = "Hand a slot past a cancelled waiter")
+    @Description("Test that a released slot skips a waiter that was cancelled and goes to the next one")
+    public void testCancelledWaiterHandOff() {
+        // Arrange
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(1, false, 0);
+        limiter.acquire().join();
+        CompletableFuture<Void> cancelled = limiter.acquire();
+        CompletableFuture<Void> next = limiter.acquire();
+        cancelled.cancel(false);
+
+        // Act
+        limiter.release(false, 0);
+
+        // Assert
+        AssertionHelper.assertFieldEquals("next waiter admitted", next.isDone() && !next.isCompletedExceptionally(), true);
+        AssertionHelper.assertFieldEquals("in flight", limiter.getInFlight(), 1);
+        AssertionHelper.assertFieldEquals("queued", limiter.getQueued(), 0);
+        limiter.release(false, 0);
+        AssertionHelper.assertFieldEquals("in flight after release", limiter.getInFlight(), 0);
+    }
+
+    private static int closedPort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static void pause(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Client that sends arbitrary calls through ApiClient's retry, throttle and metrics path
+     */
+    private static class DirectClient extends ApiClient {
+        Response send(String method, String endpoint, Supplier<Response> call) {
+            return execute(method, endpoint, call);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.petstore.tests;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.restassured.response.Response;
+import org.testng.annotations.*;
+import com.petstore.api.PetApi;
+import com.petstore.api.StoreApi;
+import com.petstore.api.UserApi;
+import com.petstore.cache.CacheStats;
+import com.petstore.cache.ResponseCache;
+import com.petstore.metrics.LatencyHistogram;
+import com.petstore.metrics.RequestMetrics;
+import com.petstore.models.Order;
+import com.petstore.models.Pet;
+import com.petstore.models.User;
+import com.petstore.utils.AssertionHelper;
+import com.petstore.utils.JsonCodec;
+import com.petstore.utils.TestDataBuilder;
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Test cases for the response cache behind the lookup methods, run against the in-process stub
+ * because revalidation relies on its ETags and 304s; each test enables the cache with
+ * cache.enabled=true over the suite configuration and restores it afterwards
+ */
+@Feature("Pet Store")
+@Story("Response Cache")
+public class ResponseCacheTests {
+    private final ConfigOverrides config = new ConfigOverrides();
+    private final LocalStub stub = new LocalStub();
+    private final ResponseCache cache = ResponseCache.getInstance();
+    private PetApi petApi;
+    private StoreApi storeApi;
+    private UserApi userApi;
+
+    @BeforeClass
+    public void setup() {
+        stub.start();
+        petApi = new PetApi();
+        storeApi = new StoreApi();
+        userApi = new UserApi();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopStub() {
+        stub.stop();
+    }
+
+    @BeforeMethod
+    public void enableCache() {
+        config.set("cache.enabled", "true");
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void restoreConfig() {
+        config.restore();
+    }
+
+    @Test(description = "Serve a fresh lookup from the cache")
+    @Description("Test that a second lookup within cache.ttl is answered from memory without a request")
+    public void testFreshHit() {
+        // Arrange
+        Pet pet = TestDataBuilder.buildPet();
+        petApi.addPet(pet);
+        CacheStats before = cache.stats();
+
+        // Act
+        Response first;
+        Response second;
+        LatencyHistogram sent;
+        try (RequestMetrics.Scope scope = RequestMetrics.getInstance().openScope()) {
+            first = petApi.getPetById(pet.getId());
+            second = petApi.getPetById(pet.getId());
+            sent = scope.getHistogram("GET /pet/{id}");
+        }
+
+        // Assert
+        AssertionHelper.assertStatusCode(second, 200);
+        AssertionHelper.assertFieldEquals("cached response returned", second == first, true);
+        AssertionHelper.assertFieldEquals("requests sent", sent == null ? 0L : sent.getTotalCount(), 1L);
+        AssertionHelper.assertFieldEquals("hits", cache.stats().hits() - before.hits(), 1L);
+        AssertionHelper.assertFieldEquals("misses", cache.stats().misses() - before.misses(), 1L);
+    }
+
+    @Test(description = "Revalidate an expired lookup")
+    @Description("Test that an expired entry is revalidated with If-None-Match and kept on a 304")
+    public void testRevalidationNotModified() throws InterruptedException {
+        // Arrange
+        config.set("cache.ttl", "1");
+        Pet pet = TestDataBuilder.buildPet();
+        petApi.addPet(pet);
+        Response first = petApi.getPetById(pet.getId());
+        CacheStats before = cache.stats();
+        Thread.sleep(5);
+
+        // Act
+        Response second = petApi.getPetById(pet.getId());
+
+        // Assert
+        AssertionHelper.assertStatusCode(second, 200);
+        AssertionHelper.assertFieldEquals("cached response returned", second == first, true);
+        AssertionHelper.assertFieldEquals("revalidations", cache.stats().revalidations() - before.revalidations(), 1L);
+        AssertionHelper.assertFieldEquals("misses", cache.stats().misses() - before.misses(), 0L);
+    }
+
+    @Test(description = "Invalidate a pet lookup after an update")
+    @Description("Test that updatePet drops the cached pet so the next lookup returns the new state")
+    public void testInvalidateAfterUpdatePet() {
+        // Arrange
+        Pet pet = TestDataBuilder.buildPet();
+        petApi.addPet(pet);
+        petApi.getPetById(pet.getId());
+        pet.setName("Renamed");
+
+        // Act
+        petApi.updatePet(pet);
+        Response response = petApi.getPetById(pet.getId());
+
+        // Assert
+        AssertionHelper.assertStatusCode(response, 200);
+        AssertionHelper.assertJsonPath(response, "name", "Renamed");
+    }
+
+    @Test(description = "Invalidate a pet lookup after a delete")
+    @Description("Test that deletePet drops the cached pet so the next lookup is not found")
+    public void testInvalidateAfterDeletePet() {
+        // Arrange
+        Pet pet = TestDataBuilder.buildPet();
+        petApi.addPet(pet);
+        petApi.getPetById(pet.getId());
+
+        // Act
+        petApi.deletePet(pet.getId());
+        Response response = petApi.getPetById(pet.getId());
+
+        // Assert
+        AssertionHelper.assertStatusCode(response, 404);
+    }
+
+    @Test(description = "Invalidate a user lookup after an update")
+    @Description("Test that updateUser drops the cached user so the next lookup returns the new state")
+    public void testInvalidateAfterUpdateUser() {
+        // Arrange
+        User user = TestDataBuilder.buildUser();
+        userApi.createUser(user);
+        userApi.getUserByUsername(user.getUsername());
+        user.setFirstName("Janet");
+
+        // Act
+        userApi.updateUser(user.getUsername(), user);
+        Response response = userApi.getUserByUsername(user.getUsername());
+
+        // Assert
+        AssertionHelper.assertStatusCode(response, 200);
+        AssertionHelper.assertJsonPath(response, "firstName", "Janet");
+    }
+
+    @Test(description = "Invalidate an order lookup after a delete")
+    @Description("Test that deleteOrder drops the cached order so the next lookup is not found")
+    public void testInvalidateAfterDeleteOrder() {
+        // Arrange
+        Order order = TestDataBuilder.buildOrder();
+        storeApi.placeOrder(order);
+        storeApi.getOrderById(order.getId());
+
+        // Act
+        storeApi.deleteOrder(order.getId());
+        Response response = storeApi.getOrderById(order.getId());
+
+        // Assert
+        AssertionHelper.assertStatusCode(response, 404);
+    }
+
+    @Test(description = "Export cache counters with the latency metrics")
+    @Description("Test that the metrics export file carries the response cache counters while the cache is enabled")
+    public void testExportCacheStats() throws Exception {
+        // Arrange
+        Pet pet = TestDataBuilder.buildPet();
+        petApi.addPet(pet);
+        petApi.getPetById(pet.getId());
+        petApi.getPetById(pet.getId());
+        Path file = Files.createTempFile("latency-metrics", ".json");
+
+        // Act
+        JsonNode export;
+        try {
+            RequestMetrics.getInstance().exportJson(file);
+            export = JsonCodec.mapper().readTree(file.toFile());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+
+        // Assert
+        AssertionHelper.assertFieldEquals("cache.hits", export.path("cache").path("hits").asLong(), cache.stats().hits());
+        AssertionHelper.assertFieldEquals("cache.hitRate present", export.path("cache").has("hitRate"), true);
+    }
+}
@@ -5,6 +5,7 @@ import org.testng.annotations.*;
 import com.petstore.api.StoreApi;
 import com.petstore.models.Order;
 import com.petstore.utils.AssertionHelper;
+import com.petstore.utils.ParallelExecutor;
 import com.petstore.utils.TestDataBuilder;
 import io.qameta.allure.Description;
 import io.qameta.allure.Feature;
@@ -109,4 +110,26 @@ public class StoreApiTests {
         // Store may accept this, but we check for valid response
         AssertionHelper.assertResponseSuccess(response);
     }
+
+    @Test(description = "Place orders in parallel", groups = "stub-only")
+    @Description("Test fanning out placeOrder calls for data-provider rows onto virtual threads")
+    public void testPlaceOrdersInParallel() {
+        // Arrange
+        Object[][] rows = new Object[100][];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = new Object[]{TestDataBuilder.generateOrderId(), TestDataBuilder.generateQuantity()};
+        }
+
+        // Act & Assert
+        ParallelExecutor.forEachRow(rows, row -> {
+            Order order = new Order(1L, (Integer) row[1]);
+            order.setId((Long) row[0]);
+            order.setStatus("placed");
+
+            Response response = storeApi.placeOrder(order);
+
+            AssertionHelper.assertStatusCode(response, 200);
+            AssertionHelper.assertJsonPath(response, "quantity", row[1]);
+        });
+    }
 }
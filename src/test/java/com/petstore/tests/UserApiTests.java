@@ -2,14 +2,25 @@ package com.petstore.tests;
 
 import io.restassured.response.Response;
 import org.testng.annotations.*;
+import com.petstore.api.PetApi;
+import com.petstore.api.StoreApi;
 import com.petstore.api.UserApi;
+import com.petstore.batch.BatchWriter;
+import com.petstore.config.ConfigManager;
 import com.petstore.models.User;
+import com.petstore.seed.DataSeeder;
+import com.petstore.seed.SeedReport;
 import com.petstore.utils.AssertionHelper;
 import com.petstore.utils.TestDataBuilder;
 import io.qameta.allure.Description;
 import io.qameta.allure.Feature;
 import io.qameta.allure.Story;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Test cases for User API endpoints
  */
@@ -63,6 +74,26 @@ public class UserApiTests {
         AssertionHelper.assertJsonPath(response, "username", username);
     }
 
+    @Test(description = "Get user by username as a model")
+    @Description("Test retrieving user details by username through the typed method")
+    public void testGetUserByUsernameAs() {
+        // Arrange
+        String username = TestDataBuilder.generateUsername();
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(TestDataBuilder.generateEmail());
+        user.setPassword(TestDataBuilder.generatePassword());
+        
+        userApi.createUser(user);
+
+        // Act
+        User found = userApi.getUserByUsernameAs(username);
+
+        // Assert
+        AssertionHelper.assertFieldEquals("username", found.getUsername(), username);
+        AssertionHelper.assertFieldEquals("email", found.getEmail(), user.getEmail());
+    }
+
     @Test(description = "Update user")
     @Description("Test updating user information")
     public void testUpdateUser() {
@@ -106,6 +137,38 @@ public class UserApiTests {
         AssertionHelper.assertStatusCode(response, 200);
     }
 
+    @Test(description = "Create and delete users through the batch writer", groups = "stub-only")
+    @Description("Test that queued users are created with createWithArray and deleted concurrently")
+    public void testBatchedCreateAndDeleteUsers() {
+        // Arrange
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            users.add(TestDataBuilder.buildUser());
+        }
+
+        // A window longer than the test, so batches only go out when full or flushed
+        ConfigManager config = ConfigManager.getInstance();
+        int maxBatchSize = config.getBatchMaxSize();
+        long expectedRequests = (users.size() + maxBatchSize - 1) / maxBatchSize;
+
+        // Act
+        List<CompletableFuture<Response>> deleted = new ArrayList<>();
+        long requests;
+        try (BatchWriter writer = new BatchWriter(new PetApi(), new StoreApi(), userApi, Duration.ofMinutes(1),
+                maxBatchSize, config.getMaxConcurrency())) {
+            users.forEach(writer::createUser);
+            writer.awaitCompletion();
+            requests = writer.getRequests();
+            users.forEach(user -> deleted.add(writer.deleteUser(user.getUsername())));
+        }
+
+        // Assert
+        AssertionHelper.assertFieldEquals("createWithArray requests", requests, expectedRequests);
+        for (CompletableFuture<Response> response : deleted) {
+            AssertionHelper.assertStatusCode(response.join(), 200);
+        }
+    }
+
     @Test(description = "User login")
     @Description("Test user login functionality")
     public void testLoginUser() {
@@ -148,4 +211,18 @@ public class UserApiTests {
         // Should return 200 but with error message for this API
         AssertionHelper.assertResponseSuccess(response);
     }
+
+    @Test(description = "Seed users in batches", groups = "stub-only")
+    @Description("Test bulk seeding users through createWithArray with bounded parallelism")
+    public void testSeedUsers() {
+        // Arrange
+        DataSeeder seeder = new DataSeeder().batchSize(50);
+
+        // Act
+        SeedReport report = seeder.seedUsers(200, TestDataBuilder::buildUser);
+
+        // Assert
+        AssertionHelper.assertFieldEquals("seeded", report.seeded(), 200L);
+        AssertionHelper.assertFieldEquals("failed", report.failed(), 0L);
+    }
 }